@@ -0,0 +1,143 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass overlap engine with the previous per-window Instant/Duration implementation,
+ * for the windows a month of data is typically asked for: today, this week, this month and every single day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorkHoursOverlapBenchmark {
+
+    private static final long MAX_SHIFT_HOURS = 12;
+    private static final ZoneId ZONE = ZoneId.of("Africa/Cairo");
+
+    @Param({"1", "4"})
+    public int sessionsPerDay;
+
+    private List<ClockRecord> records;
+    private long[] windowStarts;
+    private long[] windowEnds;
+    private Instant[] windowStartInstants;
+    private Instant[] windowEndInstants;
+
+    @Setup
+    public void setUp() {
+        LocalDate firstDay = LocalDate.of(2025, 12, 1);
+        int days = 31;
+
+        records = new ArrayList<>();
+        long recordId = 1;
+        for (int d = 0; d < days; d++) {
+            Instant dayStart = firstDay.plusDays(d).atStartOfDay(ZONE).toInstant();
+            for (int s = 0; s < sessionsPerDay; s++) {
+                Instant in = dayStart.plus(Duration.ofHours(8 + 2L * s));
+                records.add(new ClockRecord(recordId++, 1L, ClockRecordType.IN, in, null));
+                records.add(new ClockRecord(recordId++, 1L, ClockRecordType.OUT, in.plus(Duration.ofMinutes(95)), null));
+            }
+        }
+        // Leave the last session open, like a user who is currently clocked in
+        records.add(new ClockRecord(recordId, 1L, ClockRecordType.IN,
+                firstDay.plusDays(days - 1).atTime(20, 0).atZone(ZONE).toInstant(), null));
+
+        Instant now = firstDay.plusDays(days - 1).atTime(23, 0).atZone(ZONE).toInstant();
+        List<Instant[]> windows = new ArrayList<>();
+        windows.add(new Instant[]{firstDay.plusDays(days - 1).atStartOfDay(ZONE).toInstant(), now});
+        windows.add(new Instant[]{firstDay.plusDays(days - 7).atStartOfDay(ZONE).toInstant(), now});
+        windows.add(new Instant[]{firstDay.atStartOfDay(ZONE).toInstant(), now});
+        for (int d = 0; d < days; d++) {
+            windows.add(new Instant[]{
+                    firstDay.plusDays(d).atStartOfDay(ZONE).toInstant(),
+                    firstDay.plusDays(d + 1).atStartOfDay(ZONE).toInstant()
+            });
+        }
+
+        int count = windows.size();
+        windowStarts = new long[count];
+        windowEnds = new long[count];
+        windowStartInstants = new Instant[count];
+        windowEndInstants = new Instant[count];
+        for (int i = 0; i < count; i++) {
+            windowStartInstants[i] = windows.get(i)[0];
+            windowEndInstants[i] = windows.get(i)[1];
+            windowStarts[i] = windowStartInstants[i].getEpochSecond();
+            windowEnds[i] = windowEndInstants[i].getEpochSecond();
+        }
+    }
+
+    @Benchmark
+    public long[] singlePass() {
+        return WorkHoursService.calculateOverlapSeconds(records, windowStarts, windowEnds);
+    }
+
+    @Benchmark
+    public long[] perWindowLegacy() {
+        long[] totals = new long[windowStartInstants.length];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = legacyOverlapSeconds(records, windowStartInstants[i], windowEndInstants[i]);
+        }
+        return totals;
+    }
+
+    // Previous WorkHoursService implementation, kept verbatim as the baseline
+    private static long legacyOverlapSeconds(List<ClockRecord> records, Instant windowStart, Instant windowEnd) {
+        long totalSeconds = 0;
+        ClockRecord lastIn = null;
+
+        for (ClockRecord record : records) {
+            if (record.getType() == ClockRecordType.IN) {
+                lastIn = record;
+            } else if (record.getType() == ClockRecordType.OUT && lastIn != null) {
+                Instant startWork = lastIn.getRecordedAt();
+                Instant endWork = record.getRecordedAt();
+
+                long rawDurationSeconds = Duration.between(startWork, endWork).getSeconds();
+                long maxDurationSeconds = MAX_SHIFT_HOURS * 3600;
+
+                if (rawDurationSeconds > maxDurationSeconds) {
+                    endWork = startWork.plusSeconds(maxDurationSeconds);
+                }
+
+                totalSeconds += legacyOverlapDuration(startWork, endWork, windowStart, windowEnd);
+                lastIn = null;
+            }
+        }
+
+        if (lastIn != null) {
+            Instant startWork = lastIn.getRecordedAt();
+            long currentDurationSeconds = Duration.between(startWork, windowEnd).getSeconds();
+            long maxDurationSeconds = MAX_SHIFT_HOURS * 3600;
+
+            Instant effectiveEnd = windowEnd;
+            if (currentDurationSeconds > maxDurationSeconds) {
+                effectiveEnd = startWork.plusSeconds(maxDurationSeconds);
+            }
+
+            totalSeconds += legacyOverlapDuration(startWork, effectiveEnd, windowStart, windowEnd);
+        }
+
+        return totalSeconds;
+    }
+
+    private static long legacyOverlapDuration(Instant startWork, Instant endWork, Instant windowStart, Instant windowEnd) {
+        Instant overlapStart = startWork.isAfter(windowStart) ? startWork : windowStart;
+        Instant overlapEnd = endWork.isBefore(windowEnd) ? endWork : windowEnd;
+
+        if (overlapStart.isBefore(overlapEnd)) {
+            return Duration.between(overlapStart, overlapEnd).getSeconds();
+        }
+        return 0;
+    }
+}
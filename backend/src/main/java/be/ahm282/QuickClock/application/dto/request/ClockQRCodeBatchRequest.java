@@ -0,0 +1,18 @@
+package be.ahm282.QuickClock.application.dto.request;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ClockQRCodeBatchRequest(
+        @NotEmpty
+        @Size(max = 500, message = "At most 500 QR codes can be generated per request")
+        List<@NotNull UUID> publicIds,
+        @NotNull
+        ClockRecordType type
+) {
+}
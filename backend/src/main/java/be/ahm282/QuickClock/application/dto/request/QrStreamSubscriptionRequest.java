@@ -0,0 +1,25 @@
+package be.ahm282.QuickClock.application.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record QrStreamSubscriptionRequest(
+        @Size(max = 1000, message = "At most 1000 token ids can be subscribed per request")
+        List<@NotBlank @Pattern(regexp = TOKEN_ID_PATTERN) String> subscribe,
+        @Size(max = 1000, message = "At most 1000 token ids can be unsubscribed per request")
+        List<@NotBlank @Pattern(regexp = TOKEN_ID_PATTERN) String> unsubscribe
+) {
+    // QR token ids are Base64url
+    public static final String TOKEN_ID_PATTERN = "[A-Za-z0-9_-]+";
+
+    public List<String> subscribeOrEmpty() {
+        return subscribe != null ? subscribe : List.of();
+    }
+
+    public List<String> unsubscribeOrEmpty() {
+        return unsubscribe != null ? unsubscribe : List.of();
+    }
+}
@@ -0,0 +1,9 @@
+package be.ahm282.QuickClock.application.dto.response;
+
+import java.util.List;
+
+public record ClockHistoryPageResponse(
+        List<ClockResponse> items,
+        String nextCursor // null when there are no more records
+) {
+}
@@ -0,0 +1,10 @@
+package be.ahm282.QuickClock.application.dto.response;
+
+import java.util.UUID;
+
+public record ClockQRCodeBatchItemResponse(
+        UUID publicId,
+        String token,
+        String path,
+        String tokenId) {
+}
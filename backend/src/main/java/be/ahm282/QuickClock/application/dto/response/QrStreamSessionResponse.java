@@ -0,0 +1,6 @@
+package be.ahm282.QuickClock.application.dto.response;
+
+public record QrStreamSessionResponse(
+        String sessionId
+) {
+}
@@ -0,0 +1,14 @@
+package be.ahm282.QuickClock.application.dto.response;
+
+import org.decimal4j.immutable.Decimal1f;
+
+import java.util.UUID;
+
+public record WorkHoursReportRow(
+        UUID publicId,
+        String username,
+        String displayName,
+        Decimal1f hours,
+        int daysWorked
+) {
+}
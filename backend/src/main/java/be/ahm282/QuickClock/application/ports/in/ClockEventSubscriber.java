@@ -0,0 +1,11 @@
+package be.ahm282.QuickClock.application.ports.in;
+
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+
+/**
+ * Downstream work triggered by a saved clock record, run by the outbox relay.
+ * Delivery is at least once, so implementations must be idempotent.
+ */
+public interface ClockEventSubscriber {
+    void onClockEvent(ClockEvent event);
+}
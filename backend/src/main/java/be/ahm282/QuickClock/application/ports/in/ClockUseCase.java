@@ -1,9 +1,13 @@
 package be.ahm282.QuickClock.application.ports.in;
 
+import be.ahm282.QuickClock.domain.model.ClockHistoryCursor;
+import be.ahm282.QuickClock.domain.model.ClockHistoryPage;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface ClockUseCase {
     ClockRecord clockIn(Long userId);
@@ -11,6 +15,8 @@ public interface ClockUseCase {
     ClockRecord clockInWithQR(String token, Long authenticatedUserId);
     ClockRecord clockOutWithQR(String token, Long authenticatedUserId);
     List<ClockRecord> getHistory(Long userId);
+    ClockHistoryPage getHistoryPage(Long userId, ClockHistoryCursor after, int limit);
+    Optional<ClockStatus> getCurrentStatus(Long userId);
 
     // Admin corrections
     ClockRecord adminClockIn(Long userId, Instant recordedAtTimestamp, String reason);
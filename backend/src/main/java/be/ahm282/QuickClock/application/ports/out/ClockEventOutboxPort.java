@@ -0,0 +1,34 @@
+package be.ahm282.QuickClock.application.ports.out;
+
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ClockEventOutboxPort {
+    /**
+     * Must run in the transaction that saves the clock record, so the event exists if and only if the record does.
+     */
+    void append(ClockEvent event);
+
+    /**
+     * Locks up to `limit` pending events, oldest first, skipping rows another relay already holds.
+     * The locks are held until the calling transaction ends.
+     */
+    List<ClockEvent> claimPending(int limit);
+
+    Optional<ClockEvent> claimPending(Long id);
+
+    List<Long> findPendingIds(int limit);
+
+    void markProcessed(Collection<Long> ids, Instant processedAt);
+
+    /**
+     * Counts a failed delivery; after `maxAttempts` the event is parked and no longer claimed.
+     */
+    void recordFailure(Long id, String error, int maxAttempts);
+
+    int deleteProcessedBefore(Instant cutoff);
+}
@@ -1,6 +1,8 @@
 package be.ahm282.QuickClock.application.ports.out;
 
+import be.ahm282.QuickClock.domain.model.ClockHistoryCursor;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
 
 import java.time.Instant;
 import java.util.List;
@@ -8,7 +10,34 @@ import java.util.Optional;
 
 public interface ClockRecordRepositoryPort {
     ClockRecord save(ClockRecord clockRecord);
+
+    /**
+     * Saves the record only if it alternates the user's clock state (IN after OUT, OUT after IN).
+     * The check and the write happen atomically, so concurrent double taps cannot both succeed.
+     * A rejected transition inserts no record; the caller is expected to roll back its transaction.
+     *
+     * @return the saved record, or empty if the user's last record already has the same type
+     */
+    Optional<ClockRecord> saveTransition(ClockRecord clockRecord);
+
     List<ClockRecord> findAllByUserId(Long userId);
+
+    /**
+     * Returns the user's records at or after {@code from}, oldest first.
+     */
+    List<ClockRecord> findByUserIdSince(Long userId, Instant from);
+
+    /**
+     * Returns up to {@code limit} records older than {@code after} (or the newest ones when null),
+     * ordered by (recordedAt, id) descending.
+     */
+    List<ClockRecord> findPageByUserId(Long userId, ClockHistoryCursor after, int limit);
     Optional<ClockRecord> findLatestByUserId(Long userId);
+    Optional<ClockStatus> findStatusByUserId(Long userId);
     List<ClockRecord> findByUserIdAndRecordedAtBetween(Long userId, Instant startOfDay, Instant endOfDay);
+
+    /**
+     * Returns the records of all active employees in [from, to), ordered by user, then oldest first.
+     */
+    List<ClockRecord> findActiveEmployeeRecordsBetween(Instant from, Instant to);
 }
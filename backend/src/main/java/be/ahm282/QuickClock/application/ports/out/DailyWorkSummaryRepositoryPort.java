@@ -0,0 +1,23 @@
+package be.ahm282.QuickClock.application.ports.out;
+
+import be.ahm282.QuickClock.domain.model.DailyWorkSummary;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyWorkSummaryRepositoryPort {
+    List<DailyWorkSummary> findByUserIdAndWorkDateBetween(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * The most recent day the user has a rollup for, if any.
+     */
+    Optional<LocalDate> findLatestWorkDate(Long userId);
+
+    /**
+     * Inserts or replaces the summaries, keyed by (userId, workDate).
+     */
+    void saveAll(List<DailyWorkSummary> summaries);
+
+    void markOpenSession(Long userId, LocalDate workDate);
+}
@@ -8,6 +8,12 @@ import java.util.Optional;
 public interface InvalidatedTokenRepositoryPort {
     Optional<InvalidatedToken> findByJti(String jti);
 
+    /**
+     * Whether the token with this jti has been revoked and has not expired yet.
+     * Served from memory; revocations made on other instances may take one sync interval to show up.
+     */
+    boolean isInvalidated(String jti);
+
     void save(InvalidatedToken entity);
 
     void deleteByUserId(Long userId);
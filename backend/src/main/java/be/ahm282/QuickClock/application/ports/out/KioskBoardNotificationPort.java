@@ -0,0 +1,9 @@
+package be.ahm282.QuickClock.application.ports.out;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+
+import java.time.Instant;
+
+public interface KioskBoardNotificationPort {
+    void notifyClockChanged(Long userId, ClockRecordType lastClockType, Instant lastClockTime);
+}
@@ -1,9 +1,18 @@
 package be.ahm282.QuickClock.application.ports.out;
 
+import be.ahm282.QuickClock.domain.model.IssuedQrToken;
 import be.ahm282.QuickClock.domain.model.QrTokenValidation;
+import be.ahm282.QuickClock.domain.model.User;
+
+import java.util.List;
 
 public interface QRTokenPort {
-    String generateToken(Long userId, String purpose);
+    IssuedQrToken generateToken(Long userId, String purpose);
+
+    /**
+     * Signs one token per user with the secrets already loaded on them, without further lookups.
+     */
+    List<IssuedQrToken> generateTokens(List<User> users, String purpose);
     Long validateAndExtractUserId(String token, String purpose);
     QrTokenValidation validate(String token, String expectedPurpose);
     String extractTokenId(String token);
@@ -17,7 +17,6 @@ public interface TokenProviderPort {
 
     String extractJti(String token);
     String extractUsername(String token);
-    Long extractUserId(String token);
     String extractAudience(String token);
     Date extractIssuedAt(String token);
     Date extractExpiration(String token);
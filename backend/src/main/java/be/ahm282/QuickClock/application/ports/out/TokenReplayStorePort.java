@@ -0,0 +1,10 @@
+package be.ahm282.QuickClock.application.ports.out;
+
+public interface TokenReplayStorePort {
+    /**
+     * Atomically records a single-use token id as used until (exclusive) {@code forgetAtSecond}.
+     *
+     * @return true on first use, false when the id was already used or cannot be recorded safely
+     */
+    boolean markUsed(String tokenId, long forgetAtSecond, long nowSecond);
+}
@@ -1,7 +1,11 @@
 package be.ahm282.QuickClock.application.ports.out;
 
+import be.ahm282.QuickClock.domain.model.EmployeeBoardEntry;
+import be.ahm282.QuickClock.domain.model.EmployeeBoardProfile;
 import be.ahm282.QuickClock.domain.model.User;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,6 +14,32 @@ public interface UserRepositoryPort {
     Optional<User> findByUsername(String username);
     Optional<User> findById(Long id);
     Optional<User> findByPublicId(UUID publicId);
+    List<User> findAllByPublicIdIn(Collection<UUID> publicIds);
+
+    /**
+     * Returns only the user's QR signing secret; served from a cache that is invalidated on save.
+     */
+    Optional<String> findSecretById(Long id);
     List<User> findAllActiveEmployees();
+    List<EmployeeBoardEntry> findActiveEmployeesWithLatestClock();
+
+    /**
+     * The board fields of one user, if they are an active employee. A single-row projection, without roles.
+     */
+    Optional<EmployeeBoardProfile> findActiveEmployeeBoardProfile(Long id);
     User save(User user);
+
+    /**
+     * Single-statement login bookkeeping: increments the failed attempt counter and, once it reaches
+     * maxAttempts, locks the account until lockedUntil. The increment happens in the database, so
+     * concurrent failures are all counted.
+     */
+    void recordFailedLogin(Long id, int maxAttempts, Instant lockedUntil);
+
+    /**
+     * Resets the failed attempt counter and lock, and stamps the login time.
+     */
+    void recordSuccessfulLogin(Long id, Instant loginAt);
+
+    void updatePasswordHash(Long id, String passwordHash);
 }
@@ -4,11 +4,13 @@ import be.ahm282.QuickClock.application.dto.response.TokenPairResponse;
 import be.ahm282.QuickClock.application.ports.in.AuthUseCase;
 import be.ahm282.QuickClock.application.ports.out.*;
 import be.ahm282.QuickClock.domain.exception.AuthenticationException;
+import be.ahm282.QuickClock.domain.exception.ServiceBusyException;
 import be.ahm282.QuickClock.domain.exception.ValidationException;
 import be.ahm282.QuickClock.domain.model.InviteCode;
 import be.ahm282.QuickClock.domain.model.RefreshToken;
 import be.ahm282.QuickClock.domain.model.Role;
 import be.ahm282.QuickClock.domain.model.User;
+import be.ahm282.QuickClock.infrastructure.security.BcryptCost;
 import io.jsonwebtoken.Claims;
 import me.gosimple.nbvcxz.Nbvcxz;
 import me.gosimple.nbvcxz.resources.Configuration;
@@ -39,6 +41,7 @@ public class AuthenticationService implements AuthUseCase {
     private final TokenProviderPort tokenProviderPort;
     private final BreachedPasswordCheckPort breachedPasswordCheckPort;
     private final PasswordEncoder passwordEncoder;
+    private final BcryptCost bcryptCost;
     private final SecureRandom secureRandom;
     private final String dummyHash;
     private final Nbvcxz nbvcxz;
@@ -48,6 +51,7 @@ public class AuthenticationService implements AuthUseCase {
                                  RefreshTokenRepositoryPort refreshTokenRepositoryPort,
                                  TokenProviderPort tokenProviderPort,
                                  PasswordEncoder passwordEncoder,
+                                 BcryptCost bcryptCost,
                                  BreachedPasswordCheckPort breachedPasswordCheckPort,
                                  @Value("${app.password.min-entropy:42}")
                                  double minimumPasswordEntropy) {
@@ -57,6 +61,7 @@ public class AuthenticationService implements AuthUseCase {
         this.tokenProviderPort = tokenProviderPort;
         this.breachedPasswordCheckPort = breachedPasswordCheckPort;
         this.passwordEncoder = passwordEncoder;
+        this.bcryptCost = bcryptCost;
         this.secureRandom = new SecureRandom();
         this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
 
@@ -94,8 +99,8 @@ public class AuthenticationService implements AuthUseCase {
             throw new AuthenticationException("Authentication failed. Invalid username or password.");
         }
 
-
-        user = handleSuccessfulLogin(user);
+        rehashIfOutdated(user, password);
+        userRepositoryPort.recordSuccessfulLogin(user.getId(), Instant.now());
         return issueInitialTokens(user, toRoleList(user));
     }
 
@@ -122,28 +127,37 @@ public class AuthenticationService implements AuthUseCase {
     }
 
     private void handleFailedLogin(User user) {
-        int newFailCount = user.getFailedLoginAttempts() + 1;
-        Instant lockedUntil = null;
+        Instant lockedUntil = Instant.now().plus(LOCK_DURATION_MINUTES, ChronoUnit.MINUTES);
+        userRepositoryPort.recordFailedLogin(user.getId(), MAX_FAILED_ATTEMPTS, lockedUntil);
 
-        if (newFailCount >= MAX_FAILED_ATTEMPTS) {
-            lockedUntil = Instant.now().plus(LOCK_DURATION_MINUTES, ChronoUnit.MINUTES);
+        if (user.getFailedLoginAttempts() + 1 >= MAX_FAILED_ATTEMPTS) {
             log.warn("User '{}' locked due to too many failed attempts.", user.getUsername());
         }
-
-        User updated = user.toBuilder()
-                .failedLoginAttempts(newFailCount)
-                .lockedUntil(lockedUntil)
-                .build();
-        userRepositoryPort.save(updated);
     }
 
-    private User handleSuccessfulLogin(User user) {
-        User updated = user.toBuilder()
-                .failedLoginAttempts(0)
-                .lockedUntil(null)
-                .lastLogin(Instant.now())
-                .build();
-        return userRepositoryPort.save(updated);
+    /**
+     * The plaintext is only at hand during login, so that is where hashes made with outdated parameters
+     * (an older cost, or no encoder prefix) are replaced. A hash without prefix that is already at the
+     * calibrated cost or above only gets the prefix, without hashing, so a slower host never lowers the cost.
+     * Skipped when the hashing pool is saturated; the next login tries again.
+     */
+    private void rehashIfOutdated(User user, String password) {
+        String storedHash = user.getPasswordHash();
+        if (!passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+
+        Optional<String> prefixed = bcryptCost.prefixOnlyUpgrade(storedHash);
+        if (prefixed.isPresent()) {
+            userRepositoryPort.updatePasswordHash(user.getId(), prefixed.get());
+            return;
+        }
+
+        try {
+            userRepositoryPort.updatePasswordHash(user.getId(), passwordEncoder.encode(password));
+        } catch (ServiceBusyException e) {
+            log.debug("Password rehash for user '{}' deferred: {}", user.getUsername(), e.getMessage());
+        }
     }
 
     private List<Role> toRoleList(User user) {
@@ -0,0 +1,73 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.ports.in.ClockEventSubscriber;
+import be.ahm282.QuickClock.application.ports.out.ClockEventOutboxPort;
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Delivers outbox events to the in-process subscribers. Claiming, the subscribers' writes and marking
+ * the events done share one transaction, so a crash at any point leaves the events pending to be retried.
+ */
+@Service
+public class ClockEventRelayService {
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final ClockEventOutboxPort outbox;
+    private final List<ClockEventSubscriber> subscribers;
+
+    public ClockEventRelayService(ClockEventOutboxPort outbox, List<ClockEventSubscriber> subscribers) {
+        this.outbox = outbox;
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * Relays up to `limit` pending events in one transaction.
+     *
+     * @return the number of events relayed
+     */
+    @Transactional
+    public int relayBatch(int limit) {
+        List<ClockEvent> events = outbox.claimPending(limit);
+        if (events.isEmpty()) return 0;
+
+        events.forEach(this::deliver);
+        outbox.markProcessed(events.stream().map(ClockEvent::id).toList(), Instant.now());
+        return events.size();
+    }
+
+    /**
+     * Relays a single event in its own transaction; used to isolate a failing event from the rest of a batch.
+     *
+     * @return false when the event was already relayed or is held by another relay
+     */
+    @Transactional
+    public boolean relayOne(Long id) {
+        Optional<ClockEvent> event = outbox.claimPending(id);
+        if (event.isEmpty()) return false;
+
+        deliver(event.get());
+        outbox.markProcessed(List.of(id), Instant.now());
+        return true;
+    }
+
+    public List<Long> findPendingIds(int limit) {
+        return outbox.findPendingIds(limit);
+    }
+
+    public void recordFailure(Long id, RuntimeException ex) {
+        outbox.recordFailure(id, ex.toString(), MAX_ATTEMPTS);
+    }
+
+    private void deliver(ClockEvent event) {
+        for (ClockEventSubscriber subscriber : subscribers) {
+            subscriber.onClockEvent(event);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package be.ahm282.QuickClock.application.services;
 
 import be.ahm282.QuickClock.application.ports.in.ClockUseCase;
+import be.ahm282.QuickClock.application.ports.out.ClockEventOutboxPort;
 import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
 import be.ahm282.QuickClock.application.ports.out.QRTokenPort;
 import be.ahm282.QuickClock.application.ports.out.QrScanNotificationPort;
 import be.ahm282.QuickClock.domain.exception.BusinessRuleException;
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+import be.ahm282.QuickClock.domain.model.ClockHistoryCursor;
+import be.ahm282.QuickClock.domain.model.ClockHistoryPage;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
 import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
@@ -15,33 +20,45 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Transactional
 public class ClockService implements ClockUseCase {
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final ClockRecordRepositoryPort clockRepo;
     private final QRTokenPort qrTokenPort;
     private final QrScanNotificationPort qrScanNotificationPort;
+    private final ClockEventOutboxPort clockEventOutbox;
 
-    public ClockService(ClockRecordRepositoryPort clockRepo, QRTokenPort qrTokenPort, QrScanNotificationPort qrScanNotificationPort) {
+    public ClockService(ClockRecordRepositoryPort clockRepo,
+                        QRTokenPort qrTokenPort,
+                        QrScanNotificationPort qrScanNotificationPort,
+                        ClockEventOutboxPort clockEventOutbox) {
         this.clockRepo = clockRepo;
         this.qrTokenPort = qrTokenPort;
         this.qrScanNotificationPort = qrScanNotificationPort;
+        this.clockEventOutbox = clockEventOutbox;
     }
 
     @Override
     public ClockRecord clockIn(Long userId) {
-        checkClockInRules(userId);
         ClockRecord record = ClockRecord.create(userId, ClockRecordType.IN);
-        return clockRepo.save(record);
+        ClockRecord saved = clockRepo.saveTransition(record)
+                .orElseThrow(() -> new BusinessRuleException("Cannot clock in twice in a row"));
+        clockEventOutbox.append(ClockEvent.of(saved, false));
+        return saved;
     }
 
     @Override
     public ClockRecord clockOut(Long userId) {
-        checkClockOutRules(userId);
         ClockRecord record = ClockRecord.create(userId, ClockRecordType.OUT);
-        return clockRepo.save(record);
+        ClockRecord saved = clockRepo.saveTransition(record)
+                .orElseThrow(() -> new BusinessRuleException("Cannot clock out twice in a row"));
+        clockEventOutbox.append(ClockEvent.of(saved, false));
+        return saved;
     }
 
     @Override
@@ -91,6 +108,25 @@ public class ClockService implements ClockUseCase {
         return clockRepo.findAllByUserId(userId);
     }
 
+    @Override
+    public ClockHistoryPage getHistoryPage(Long userId, ClockHistoryCursor after, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_HISTORY_PAGE_SIZE);
+
+        // Fetch one extra row to learn whether another page exists
+        List<ClockRecord> records = clockRepo.findPageByUserId(userId, after, pageSize + 1);
+        if (records.size() <= pageSize) {
+            return new ClockHistoryPage(records, null);
+        }
+
+        List<ClockRecord> page = records.subList(0, pageSize);
+        return new ClockHistoryPage(page, ClockHistoryCursor.after(page.get(pageSize - 1)));
+    }
+
+    @Override
+    public Optional<ClockStatus> getCurrentStatus(Long userId) {
+        return clockRepo.findStatusByUserId(userId);
+    }
+
     public List<ClockRecord> getTodayActivities(Long userId) {
         // Get start and end of today in UTC
         ZoneId zoneId = ZoneId.systemDefault();
@@ -112,14 +148,18 @@ public class ClockService implements ClockUseCase {
         // TODO: Consider enforcing time constraints (e.g., cannot clock in for a time in the future)
         checkClockInRules(userId);
         ClockRecord record = ClockRecord.createAt(userId, ClockRecordType.IN, recordedAtTimestamp, reason);
-        return clockRepo.save(record);
+        ClockRecord saved = clockRepo.save(record);
+        clockEventOutbox.append(ClockEvent.of(saved, true));
+        return saved;
     }
 
     @Override
     public ClockRecord adminClockOut(Long userId, Instant recordedAtTimestamp, String reason) {
         checkClockOutRules(userId);
         ClockRecord record = ClockRecord.createAt(userId, ClockRecordType.OUT, recordedAtTimestamp, reason);
-        return clockRepo.save(record);
+        ClockRecord saved = clockRepo.save(record);
+        clockEventOutbox.append(ClockEvent.of(saved, true));
+        return saved;
     }
 
     // ---------- Business rules ----------
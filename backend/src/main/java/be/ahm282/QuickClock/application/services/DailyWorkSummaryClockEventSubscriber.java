@@ -0,0 +1,64 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.ports.in.ClockEventSubscriber;
+import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+import be.ahm282.QuickClock.domain.model.ClockHistoryCursor;
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Keeps the daily work rollups in step with clock records.
+ * Runs shortly after the clock transaction commits; the stale-row check in WorkHoursService covers the gap.
+ */
+@Service
+public class DailyWorkSummaryClockEventSubscriber implements ClockEventSubscriber {
+
+    private final ClockRecordRepositoryPort clockRepo;
+    private final WorkHoursService workHoursService;
+    private final Clock clock;
+
+    public DailyWorkSummaryClockEventSubscriber(ClockRecordRepositoryPort clockRepo,
+                                                WorkHoursService workHoursService,
+                                                Clock clock) {
+        this.clockRepo = clockRepo;
+        this.workHoursService = workHoursService;
+        this.clock = clock;
+    }
+
+    @Override
+    public void onClockEvent(ClockEvent event) {
+        ClockRecord record = event.toClockRecord();
+
+        // A live clock-in only opens a session; its hours are settled when it is closed
+        if (!event.manual() && event.type() == ClockRecordType.IN) {
+            workHoursService.markSessionOpened(record);
+            return;
+        }
+
+        // A back-dated record can split a session anywhere up to now
+        Instant until = event.manual() ? latestOf(event.recordedAt(), clock.instant()) : event.recordedAt();
+        refreshWorkSummaries(record, until);
+    }
+
+    /**
+     * Recomputes the daily rollups from the session the record closes (or splits) up to `until`.
+     * The record just before it is where that session started.
+     */
+    private void refreshWorkSummaries(ClockRecord record, Instant until) {
+        Instant from = clockRepo.findPageByUserId(record.getUserId(), ClockHistoryCursor.after(record), 1)
+                .stream()
+                .findFirst()
+                .map(ClockRecord::getRecordedAt)
+                .orElse(record.getRecordedAt());
+        workHoursService.refreshDailySummaries(record.getUserId(), from, until);
+    }
+
+    private static Instant latestOf(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
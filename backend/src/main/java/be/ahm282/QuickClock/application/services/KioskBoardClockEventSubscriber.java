@@ -0,0 +1,28 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.ports.in.ClockEventSubscriber;
+import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.application.ports.out.KioskBoardNotificationPort;
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+import org.springframework.stereotype.Service;
+
+@Service
+public class KioskBoardClockEventSubscriber implements ClockEventSubscriber {
+
+    private final ClockRecordRepositoryPort clockRepo;
+    private final KioskBoardNotificationPort kioskBoardNotificationPort;
+
+    public KioskBoardClockEventSubscriber(ClockRecordRepositoryPort clockRepo,
+                                          KioskBoardNotificationPort kioskBoardNotificationPort) {
+        this.clockRepo = clockRepo;
+        this.kioskBoardNotificationPort = kioskBoardNotificationPort;
+    }
+
+    // Events may be relayed late or more than once, and a back-dated record is not necessarily
+    // the latest one, so always publish whatever the current status is
+    @Override
+    public void onClockEvent(ClockEvent event) {
+        clockRepo.findStatusByUserId(event.userId()).ifPresent(status ->
+                kioskBoardNotificationPort.notifyClockChanged(event.userId(), status.lastType(), status.lastRecordedAt()));
+    }
+}
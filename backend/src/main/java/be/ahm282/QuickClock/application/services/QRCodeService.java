@@ -1,13 +1,16 @@
 package be.ahm282.QuickClock.application.services;
 
+import be.ahm282.QuickClock.application.dto.response.ClockQRCodeBatchItemResponse;
 import be.ahm282.QuickClock.application.dto.response.ClockQRCodeResponse;
 import be.ahm282.QuickClock.application.ports.out.QRTokenPort;
 import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
 import be.ahm282.QuickClock.domain.exception.BusinessRuleException;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.IssuedQrToken;
 import be.ahm282.QuickClock.domain.model.User;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
+import java.util.*;
 
 @Service
 public class QRCodeService {
@@ -27,12 +30,11 @@ public class QRCodeService {
         User user = userRepositoryPort.findByPublicId(publicId)
                 .orElseThrow(() -> new BusinessRuleException("User not found"));
 
-        String token = qrTokenPort.generateToken(user.getId(), "clock-in");
-        String tokenId = qrTokenPort.extractTokenId(token);
+        IssuedQrToken issued = qrTokenPort.generateToken(user.getId(), purposeOf(ClockRecordType.IN));
         return new ClockQRCodeResponse(
-                token,
-                "/clock/qr/in",
-                tokenId
+                issued.token(),
+                pathOf(ClockRecordType.IN),
+                issued.tokenId()
         );
     }
 
@@ -43,13 +45,51 @@ public class QRCodeService {
         User user = userRepositoryPort.findByPublicId(publicId)
                 .orElseThrow(() -> new BusinessRuleException("User not found"));
 
-        String token = qrTokenPort.generateToken(user.getId(), "clock-out");
-        String tokenId = qrTokenPort.extractTokenId(token);
-
+        IssuedQrToken issued = qrTokenPort.generateToken(user.getId(), purposeOf(ClockRecordType.OUT));
         return new ClockQRCodeResponse(
-                token,
-                "/clock/qr/out",
-                tokenId
+                issued.token(),
+                pathOf(ClockRecordType.OUT),
+                issued.tokenId()
         );
     }
+
+    /**
+     * Generate QR tokens for a whole kiosk screen at once: the users are resolved in one query
+     * and signed with the secrets loaded with them. Unknown public IDs are skipped.
+     * Items follow the order of the requested IDs.
+     */
+    public List<ClockQRCodeBatchItemResponse> generateQRCodes(List<UUID> publicIds, ClockRecordType type) {
+        Map<UUID, User> usersByPublicId = new HashMap<>();
+        for (User user : userRepositoryPort.findAllByPublicIdIn(new LinkedHashSet<>(publicIds))) {
+            usersByPublicId.put(user.getPublicId(), user);
+        }
+
+        List<User> users = publicIds.stream()
+                .distinct()
+                .map(usersByPublicId::get)
+                .filter(user -> user != null && user.getSecret() != null)
+                .toList();
+
+        Map<Long, UUID> publicIdByUserId = new HashMap<>();
+        users.forEach(user -> publicIdByUserId.put(user.getId(), user.getPublicId()));
+
+        String path = pathOf(type);
+        return qrTokenPort.generateTokens(users, purposeOf(type))
+                .stream()
+                .map(issued -> new ClockQRCodeBatchItemResponse(
+                        publicIdByUserId.get(issued.userId()),
+                        issued.token(),
+                        path,
+                        issued.tokenId()
+                ))
+                .toList();
+    }
+
+    private static String purposeOf(ClockRecordType type) {
+        return type == ClockRecordType.IN ? "clock-in" : "clock-out";
+    }
+
+    private static String pathOf(ClockRecordType type) {
+        return type == ClockRecordType.IN ? "/clock/qr/in" : "/clock/qr/out";
+    }
 }
@@ -17,14 +17,14 @@ public class UserDirectoryService implements UserDirectoryUseCase {
 
     @Override
     public List<UserSummaryResponse> listEmployeesForKiosk() {
-        return userRepositoryPort.findAllActiveEmployees()
+        return userRepositoryPort.findActiveEmployeesWithLatestClock()
                 .stream()
-                .map(u -> new UserSummaryResponse(
-                        u.getPublicId(),
-                        u.getDisplayName(),
-                        u.getDisplayNameArabic(),
-                        null,  // Will be populated by controller
-                        null   // Will be populated by controller
+                .map(e -> new UserSummaryResponse(
+                        e.publicId(),
+                        e.displayName(),
+                        e.displayNameArabic(),
+                        e.lastClockType() != null ? e.lastClockType().name() : null,
+                        e.lastClockTime()
                 ))
                 .toList();
     }
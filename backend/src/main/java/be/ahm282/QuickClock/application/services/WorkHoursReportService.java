@@ -0,0 +1,104 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.dto.response.WorkHoursReportRow;
+import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.User;
+import be.ahm282.QuickClock.infrastructure.config.LocalizationConfig;
+import org.decimal4j.immutable.Decimal1f;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Work hours of every active employee over a range of local days.
+ * All records are read with one range query and each employee is computed independently on the fork-join pool.
+ */
+@Service
+public class WorkHoursReportService {
+
+    public static final int MAX_REPORT_DAYS = 366;
+
+    private final ClockRecordRepositoryPort clockRecordRepository;
+    private final UserRepositoryPort userRepository;
+    private final LocalizationConfig localizationConfig;
+    private final Clock clock;
+
+    public WorkHoursReportService(ClockRecordRepositoryPort clockRecordRepository,
+                                  UserRepositoryPort userRepository,
+                                  LocalizationConfig localizationConfig,
+                                  Clock clock) {
+        this.clockRecordRepository = clockRecordRepository;
+        this.userRepository = userRepository;
+        this.localizationConfig = localizationConfig;
+        this.clock = clock;
+    }
+
+    /**
+     * One row per active employee for [from, to] (inclusive local dates), in the order the directory returns them.
+     * Days that have not ended yet are counted up to now.
+     */
+    public List<WorkHoursReportRow> buildReport(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("Report end date must not be before its start date");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_REPORT_DAYS) {
+            throw new ValidationException("Report range cannot exceed " + MAX_REPORT_DAYS + " days");
+        }
+
+        ZoneId zoneId = localizationConfig.getZoneId();
+        long nowSecond = clock.instant().getEpochSecond();
+        long[] windowStarts = new long[days];
+        long[] windowEnds = new long[days];
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            windowStarts[i] = day.atStartOfDay(zoneId).toEpochSecond();
+            windowEnds[i] = Math.min(day.plusDays(1).atStartOfDay(zoneId).toEpochSecond(), nowSecond);
+        }
+
+        // Sessions are clamped to MAX_SHIFT_HOURS, so a margin of one shift on both sides
+        // catches the INs reaching into the range and the OUTs closing sessions that started in it
+        Duration margin = Duration.ofHours(WorkHoursService.MAX_SHIFT_HOURS);
+        Instant fetchFrom = Instant.ofEpochSecond(windowStarts[0]).minus(margin);
+        Instant fetchTo = to.plusDays(1).atStartOfDay(zoneId).toInstant().plus(margin);
+
+        // Rows come back ordered by user then time, so every per-user list is already sorted
+        Map<Long, List<ClockRecord>> recordsByUser = clockRecordRepository
+                .findActiveEmployeeRecordsBetween(fetchFrom, fetchTo)
+                .stream()
+                .collect(Collectors.groupingBy(ClockRecord::getUserId));
+
+        return userRepository.findAllActiveEmployees()
+                .parallelStream()
+                .map(user -> toRow(user, recordsByUser.getOrDefault(user.getId(), List.of()), windowStarts, windowEnds))
+                .toList();
+    }
+
+    private WorkHoursReportRow toRow(User user, List<ClockRecord> records, long[] windowStarts, long[] windowEnds) {
+        long[] dailySeconds = WorkHoursService.calculateOverlapSeconds(records, windowStarts, windowEnds);
+
+        long totalSeconds = 0;
+        int daysWorked = 0;
+        for (long seconds : dailySeconds) {
+            totalSeconds += seconds;
+            if (seconds > 0) {
+                daysWorked++;
+            }
+        }
+
+        return new WorkHoursReportRow(
+                user.getPublicId(),
+                user.getUsername(),
+                user.getDisplayName(),
+                Decimal1f.valueOf(totalSeconds / 3600.0),
+                daysWorked
+        );
+    }
+}
@@ -2,31 +2,40 @@ package be.ahm282.QuickClock.application.services;
 
 import be.ahm282.QuickClock.application.dto.response.WorkHoursResponse;
 import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.application.ports.out.DailyWorkSummaryRepositoryPort;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
 import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.DailyWorkSummary;
 import be.ahm282.QuickClock.infrastructure.config.LocalizationConfig;
 import org.decimal4j.immutable.Decimal1f;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class WorkHoursService {
 
     private final ClockRecordRepositoryPort clockRecordRepository;
+    private final DailyWorkSummaryRepositoryPort dailyWorkSummaryRepository;
     private final LocalizationConfig localizationConfig;
     private final Clock clock;
 
-    private static final long MAX_SHIFT_HOURS = 12;
+    static final long MAX_SHIFT_HOURS = 12;
+    // A week covers every past day a read sums; older gaps are left to the in-memory recompute
+    static final int MAX_BACKFILL_DAYS = 7;
 
     public WorkHoursService(ClockRecordRepositoryPort clockRecordRepository,
+                            DailyWorkSummaryRepositoryPort dailyWorkSummaryRepository,
                             LocalizationConfig localizationConfig,
                             Clock clock) {
         this.clockRecordRepository = clockRecordRepository;
+        this.dailyWorkSummaryRepository = dailyWorkSummaryRepository;
         this.localizationConfig = localizationConfig;
         this.clock = clock;
     }
@@ -36,11 +45,7 @@ public class WorkHoursService {
      * Uses configured timezone and week start day (e.g., Saturday for Egypt).
      */
     public WorkHoursResponse calculateWorkHours(Long userId) {
-        // 1. Get ALL records and sort them by time
-        List<ClockRecord> allRecords = new ArrayList<>(clockRecordRepository.findAllByUserId(userId));
-        allRecords.sort(Comparator.comparing(ClockRecord::getRecordedAt));
-
-        // 2. Setup Time Windows
+        // 1. Setup Time Windows
         ZoneId zoneId = localizationConfig.getZoneId();
         Clock zoneClock = clock.withZone(zoneId);
         Instant now = clock.instant();
@@ -52,90 +57,220 @@ public class WorkHoursService {
         // Week Window: [Start of Week Midnight -> Now]
         DayOfWeek weekStartDay = localizationConfig.getWeekStartDay();
         LocalDate startOfWeekDate = todayDate.with(TemporalAdjusters.previousOrSame(weekStartDay));
-        Instant startOfWeek = startOfWeekDate.atStartOfDay(zoneId).toInstant();
 
-        // 3. Calculate Overlaps
-        // We pass ALL records. The method logic determines which parts of those records fall into the window.
-        Decimal1f hoursToday = calculateHoursOverlap(allRecords, startOfToday, now);
-        Decimal1f hoursThisWeek = calculateHoursOverlap(allRecords, startOfWeek, now);
+        // 2. Past days of the week come from the daily rollups
+        long pastDaysSeconds = 0;
+        LocalDate yesterday = todayDate.minusDays(1);
+        if (!startOfWeekDate.isAfter(yesterday)) {
+            pastDaysSeconds = sumDailySummaries(userId, startOfWeekDate, yesterday, zoneId, now);
+        }
+
+        // 3. Today is computed live. A shift is clamped to MAX_SHIFT_HOURS,
+        // so an IN older than that before midnight cannot reach into today.
+        Instant fetchFrom = startOfToday.minus(Duration.ofHours(MAX_SHIFT_HOURS));
+        List<ClockRecord> records = clockRecordRepository.findByUserIdSince(userId, fetchFrom);
+        long todaySeconds = calculateOverlapSeconds(records,
+                new long[]{startOfToday.getEpochSecond()},
+                new long[]{now.getEpochSecond()})[0];
 
-        return new WorkHoursResponse(hoursToday, hoursThisWeek);
+        return new WorkHoursResponse(toHours(todaySeconds), toHours(pastDaysSeconds + todaySeconds));
     }
 
     /**
-     * Calculates the total duration of work sessions that intersect with the given [windowStart, windowEnd] interval.
-     * Clamps shifts to a maximum of 12 hours.
-     * This handles:
-     * - Regular shifts
-     * - Overnight shifts (splits hours correctly between days)
-     * - Ongoing shifts (currently clocked in)
+     * Recomputes and stores the daily rollups for every local day touched by [from, to].
+     * Called after a clock change; `from` must be at or before the start of the affected session.
+     * Days since the last stored rollup are written as well, so days without work get a zero row.
      */
-    private Decimal1f calculateHoursOverlap(List<ClockRecord> records, Instant windowStart, Instant windowEnd) {
-        long totalSeconds = 0;
-        ClockRecord lastIn = null;
+    public void refreshDailySummaries(Long userId, Instant from, Instant to) {
+        ZoneId zoneId = localizationConfig.getZoneId();
+        LocalDate firstDay = LocalDate.ofInstant(from, zoneId);
+        LocalDate lastDay = LocalDate.ofInstant(to, zoneId);
 
-        for (ClockRecord record : records) {
-            if (record.getType() == ClockRecordType.IN) {
-                // If we hit an IN, this is the start of a potential new pair
-                lastIn = record;
-            } else if (record.getType() == ClockRecordType.OUT && lastIn != null) {
-                // We have a closed pair: [IN -> OUT]
-                Instant startWork = lastIn.getRecordedAt();
-                Instant endWork = record.getRecordedAt();
-
-                // --- Clamp shifts ---
-                long rawDurationSeconds = Duration.between(startWork, endWork).getSeconds();
-                long maxDurationSeconds = MAX_SHIFT_HOURS * 3600; // to hours
-
-                if (rawDurationSeconds > maxDurationSeconds) {
-                    // Scenario: User forgot to clock out yesterday.
-                    // We cap the shift end time to (Start + 12 hours)
-                    endWork = startWork.plusSeconds(maxDurationSeconds);
-                }
+        LocalDate gapStart = firstUnsummarizedDay(userId, firstDay);
+        if (gapStart.isBefore(firstDay)) {
+            firstDay = gapStart;
+        }
 
-                // Now calculate overlap using the (possibly clamped) end time
-                totalSeconds += getOverlapDuration(startWork, endWork, windowStart, windowEnd);
+        dailyWorkSummaryRepository.saveAll(computeDailySummaries(userId, firstDay, lastDay, zoneId, clock.instant()));
+    }
 
-                lastIn = null; // Reset the pair
-            }
+    /**
+     * Flags the rollup of the day a session was opened on, so it is recomputed once that day is over.
+     * Days since the last stored rollup are written first, as the clock-in may be the first change in days.
+     */
+    public void markSessionOpened(ClockRecord clockIn) {
+        ZoneId zoneId = localizationConfig.getZoneId();
+        Long userId = clockIn.getUserId();
+        LocalDate workDate = LocalDate.ofInstant(clockIn.getRecordedAt(), zoneId);
+
+        LocalDate gapStart = firstUnsummarizedDay(userId, workDate);
+        if (gapStart.isBefore(workDate)) {
+            dailyWorkSummaryRepository.saveAll(
+                    computeDailySummaries(userId, gapStart, workDate.minusDays(1), zoneId, clock.instant()));
         }
 
-        // Handle ongoing session (User is still clocked IN)
-        if (lastIn != null) {
-            Instant startWork = lastIn.getRecordedAt();
+        dailyWorkSummaryRepository.markOpenSession(userId, workDate);
+    }
 
-            // We also clamp ongoing shifts!
-            // If they clocked in 24 hours ago and are still running, we shouldn't show 24 hours "Today".
-            long currentDurationSeconds = Duration.between(startWork, windowEnd).getSeconds();
-            long maxDurationSeconds = MAX_SHIFT_HOURS * 3600;
+    /**
+     * The day after the user's latest rollup, at most MAX_BACKFILL_DAYS before `day`.
+     * Returns `day` itself when the rollups already reach it.
+     */
+    private LocalDate firstUnsummarizedDay(Long userId, LocalDate day) {
+        LocalDate earliest = day.minusDays(MAX_BACKFILL_DAYS);
+        LocalDate next = dailyWorkSummaryRepository.findLatestWorkDate(userId)
+                .map(latest -> latest.plusDays(1))
+                .orElse(earliest);
 
-            Instant effectiveEnd = windowEnd;
-            if (currentDurationSeconds > maxDurationSeconds) {
-                effectiveEnd = startWork.plusSeconds(maxDurationSeconds);
+        if (next.isBefore(earliest)) {
+            return earliest;
+        }
+        return next.isBefore(day) ? next : day;
+    }
+
+    /**
+     * Sums the stored rollups for [from, to]. Only stale days are recomputed in memory: days without a row
+     * (e.g. data from before rollups existed) and days whose figure was taken while a session was still open.
+     * Reads never write: rollups are only persisted on the clocking path.
+     */
+    private long sumDailySummaries(Long userId, LocalDate from, LocalDate to, ZoneId zoneId, Instant now) {
+        Map<LocalDate, DailyWorkSummary> byDay = new HashMap<>();
+        for (DailyWorkSummary summary : dailyWorkSummaryRepository.findByUserIdAndWorkDateBetween(userId, from, to)) {
+            byDay.put(summary.workDate(), summary);
+        }
+
+        LocalDate firstStale = null;
+        LocalDate lastStale = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyWorkSummary summary = byDay.get(day);
+            if (summary == null || summary.openSession()) {
+                if (firstStale == null) {
+                    firstStale = day;
+                }
+                lastStale = day;
             }
+        }
 
-            totalSeconds += getOverlapDuration(startWork, effectiveEnd, windowStart, windowEnd);
+        // One pass over the records between the first and last stale day; fresh rows in between are kept
+        if (firstStale != null) {
+            for (DailyWorkSummary summary : computeDailySummaries(userId, firstStale, lastStale, zoneId, now)) {
+                DailyWorkSummary stored = byDay.get(summary.workDate());
+                if (stored == null || stored.openSession()) {
+                    byDay.put(summary.workDate(), summary);
+                }
+            }
+        }
+
+        long totalSeconds = 0;
+        for (DailyWorkSummary summary : byDay.values()) {
+            totalSeconds += summary.secondsWorked();
+        }
+        return totalSeconds;
+    }
+
+    private List<DailyWorkSummary> computeDailySummaries(Long userId,
+                                                         LocalDate firstDay,
+                                                         LocalDate lastDay,
+                                                         ZoneId zoneId,
+                                                         Instant now) {
+        Instant fetchFrom = firstDay.atStartOfDay(zoneId).toInstant().minus(Duration.ofHours(MAX_SHIFT_HOURS));
+        List<ClockRecord> records = clockRecordRepository.findByUserIdSince(userId, fetchFrom);
+        boolean clockedIn = !records.isEmpty() && records.getLast().getType() == ClockRecordType.IN;
+
+        // One window per day, all filled in a single pass over the records.
+        // A day that is not over yet is only counted up to now, and stays provisional while a session is open.
+        int days = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+        long nowSecond = now.getEpochSecond();
+        long[] windowStarts = new long[days];
+        long[] windowEnds = new long[days];
+        for (int i = 0; i < days; i++) {
+            LocalDate day = firstDay.plusDays(i);
+            windowStarts[i] = day.atStartOfDay(zoneId).toEpochSecond();
+            windowEnds[i] = Math.min(day.plusDays(1).atStartOfDay(zoneId).toEpochSecond(), nowSecond);
+        }
+        long[] seconds = calculateOverlapSeconds(records, windowStarts, windowEnds);
+
+        List<DailyWorkSummary> summaries = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            boolean dayInProgress = windowEnds[i] == nowSecond;
+            summaries.add(new DailyWorkSummary(userId, firstDay.plusDays(i), seconds[i], dayInProgress && clockedIn));
+        }
+        return summaries;
+    }
+
+    private static Decimal1f toHours(long seconds) {
+        return Decimal1f.valueOf(seconds / 3600.0);
+    }
+
+    /**
+     * Calculates, for each window [windowStarts[i], windowEnds[i]] (epoch seconds), the total duration of the
+     * work sessions that intersect it. The records must be sorted ascending by recordedAt.
+     * Clamps shifts to a maximum of 12 hours.
+     * This handles:
+     * - Regular shifts
+     * - Overnight shifts (splits hours correctly between days)
+     * - Ongoing shifts (currently clocked in)
+     */
+    public static long[] calculateOverlapSeconds(List<ClockRecord> records, long[] windowStarts, long[] windowEnds) {
+        int count = records.size();
+        long[] times = new long[count];
+        boolean[] clockIns = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            ClockRecord record = records.get(i);
+            times[i] = record.getRecordedAt().getEpochSecond();
+            clockIns[i] = record.getType() == ClockRecordType.IN;
         }
 
-        return Decimal1f.valueOf(totalSeconds / 3600.0);
+        long[] totals = new long[windowStarts.length];
+        accumulateOverlapSeconds(times, clockIns, count, windowStarts, windowEnds, totals);
+        return totals;
     }
 
     /**
-     * Math helper: Returns the number of seconds two time intervals overlap.
-     * Work Interval: [startWork, endWork]
-     * Target Window: [windowStart, windowEnd]
+     * Allocation-free core of {@link #calculateOverlapSeconds}: one scan over the first `count` records,
+     * adding every session's overlap with window i to totals[i].
+     * An IN without a matching OUT (ongoing or forgotten) runs until its clamp, cut off by each window's end.
      */
-    private long getOverlapDuration(Instant startWork, Instant endWork, Instant windowStart, Instant windowEnd) {
-        // 1. Find the later start time (The overlap starts at the latest of the two start times)
-        Instant overlapStart = startWork.isAfter(windowStart) ? startWork : windowStart;
+    public static void accumulateOverlapSeconds(long[] times,
+                                                boolean[] clockIns,
+                                                int count,
+                                                long[] windowStarts,
+                                                long[] windowEnds,
+                                                long[] totals) {
+        long maxShiftSeconds = MAX_SHIFT_HOURS * 3600;
+        long sessionStart = 0;
+        boolean sessionOpen = false;
 
-        // 2. Find the earlier end time (The overlap ends at the earliest of the two end times)
-        Instant overlapEnd = endWork.isBefore(windowEnd) ? endWork : windowEnd;
+        for (int i = 0; i < count; i++) {
+            if (clockIns[i]) {
+                // If we hit an IN, this is the start of a potential new pair
+                sessionStart = times[i];
+                sessionOpen = true;
+            } else if (sessionOpen) {
+                // We have a closed pair: [IN -> OUT], capped to (Start + 12 hours)
+                long sessionEnd = Math.min(times[i], sessionStart + maxShiftSeconds);
+                addOverlap(sessionStart, sessionEnd, windowStarts, windowEnds, totals);
+                sessionOpen = false;
+            }
+        }
 
-        // 3. If start is before end, a valid overlap exists
-        if (overlapStart.isBefore(overlapEnd)) {
-            return Duration.between(overlapStart, overlapEnd).getSeconds();
+        // Handle ongoing session (User is still clocked IN). Each window's end acts as "now" for it.
+        if (sessionOpen) {
+            addOverlap(sessionStart, sessionStart + maxShiftSeconds, windowStarts, windowEnds, totals);
+        }
+    }
+
+    private static void addOverlap(long sessionStart,
+                                   long sessionEnd,
+                                   long[] windowStarts,
+                                   long[] windowEnds,
+                                   long[] totals) {
+        for (int w = 0; w < totals.length; w++) {
+            // The overlap runs from the later of the two starts to the earlier of the two ends
+            long overlap = Math.min(sessionEnd, windowEnds[w]) - Math.max(sessionStart, windowStarts[w]);
+            if (overlap > 0) {
+                totals[w] += overlap;
+            }
         }
-        return 0; // No overlap
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package be.ahm282.QuickClock.domain.exception;
+
+public class ServiceBusyException extends DomainException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
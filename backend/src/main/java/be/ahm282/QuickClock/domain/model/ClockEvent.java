@@ -0,0 +1,34 @@
+package be.ahm282.QuickClock.domain.model;
+
+import java.time.Instant;
+
+/**
+ * A saved clock record, as handed to downstream work through the outbox.
+ * manual marks an admin entry, which may be back-dated and therefore not the user's latest record.
+ * id is null until the event has been appended.
+ */
+public record ClockEvent(
+        Long id,
+        Long clockRecordId,
+        Long userId,
+        ClockRecordType type,
+        Instant recordedAt,
+        boolean manual,
+        Instant createdAt
+) {
+    public static ClockEvent of(ClockRecord record, boolean manual) {
+        return new ClockEvent(
+                null,
+                record.getId(),
+                record.getUserId(),
+                record.getType(),
+                record.getRecordedAt(),
+                manual,
+                Instant.now()
+        );
+    }
+
+    public ClockRecord toClockRecord() {
+        return new ClockRecord(clockRecordId, userId, type, recordedAt, null);
+    }
+}
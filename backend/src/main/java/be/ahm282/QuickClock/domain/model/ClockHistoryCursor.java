@@ -0,0 +1,38 @@
+package be.ahm282.QuickClock.domain.model;
+
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in a user's clock history, ordered by (recordedAt, id) descending.
+ * Travels to clients as an opaque Base64url string.
+ */
+public record ClockHistoryCursor(Instant recordedAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ClockHistoryCursor after(ClockRecord record) {
+        return new ClockHistoryCursor(record.getRecordedAt(), record.getId());
+    }
+
+    public String encode() {
+        String raw = recordedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ClockHistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new ClockHistoryCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid history cursor");
+        }
+    }
+}
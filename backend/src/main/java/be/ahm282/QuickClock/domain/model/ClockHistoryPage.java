@@ -0,0 +1,9 @@
+package be.ahm282.QuickClock.domain.model;
+
+import java.util.List;
+
+/**
+ * One page of a user's clock history, newest first. nextCursor is null on the last page.
+ */
+public record ClockHistoryPage(List<ClockRecord> records, ClockHistoryCursor nextCursor) {
+}
@@ -0,0 +1,13 @@
+package be.ahm282.QuickClock.domain.model;
+
+import java.time.Instant;
+
+/**
+ * A user's current clock state: the type and time of their latest clock record.
+ */
+public record ClockStatus(ClockRecordType lastType, Instant lastRecordedAt) {
+
+    public boolean isClockedIn() {
+        return lastType == ClockRecordType.IN;
+    }
+}
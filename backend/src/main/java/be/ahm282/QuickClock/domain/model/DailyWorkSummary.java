@@ -0,0 +1,16 @@
+package be.ahm282.QuickClock.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Seconds a user worked on one local day (clamped shifts, split at midnight).
+ * openSession marks a figure computed while a session was still running on that day;
+ * such a row is provisional until it is recomputed after the day is over.
+ */
+public record DailyWorkSummary(
+        Long userId,
+        LocalDate workDate,
+        long secondsWorked,
+        boolean openSession
+) {
+}
@@ -0,0 +1,17 @@
+package be.ahm282.QuickClock.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An active employee together with their latest clock record, as shown on the kiosk board.
+ * lastClockType and lastClockTime are null if the employee never clocked.
+ */
+public record EmployeeBoardEntry(
+        UUID publicId,
+        String displayName,
+        String displayNameArabic,
+        ClockRecordType lastClockType,
+        Instant lastClockTime
+) {
+}
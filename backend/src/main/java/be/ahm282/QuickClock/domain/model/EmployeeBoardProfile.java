@@ -0,0 +1,13 @@
+package be.ahm282.QuickClock.domain.model;
+
+import java.util.UUID;
+
+/**
+ * The fields the kiosk board shows for an active employee, without their clock status.
+ */
+public record EmployeeBoardProfile(
+        UUID publicId,
+        String displayName,
+        String displayNameArabic
+) {
+}
@@ -0,0 +1,4 @@
+package be.ahm282.QuickClock.domain.model;
+
+public record IssuedQrToken(Long userId, String token, String tokenId) {
+}
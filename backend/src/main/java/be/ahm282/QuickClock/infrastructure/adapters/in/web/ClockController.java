@@ -1,43 +1,63 @@
 package be.ahm282.QuickClock.infrastructure.adapters.in.web;
 
 import be.ahm282.QuickClock.application.dto.request.AdminClockRequest;
+import be.ahm282.QuickClock.application.dto.request.ClockQRCodeBatchRequest;
 import be.ahm282.QuickClock.application.dto.request.ClockQRCodeRequest;
+import be.ahm282.QuickClock.application.dto.request.QrStreamSubscriptionRequest;
+import be.ahm282.QuickClock.application.dto.response.ClockHistoryPageResponse;
+import be.ahm282.QuickClock.application.dto.response.ClockQRCodeBatchItemResponse;
 import be.ahm282.QuickClock.application.dto.response.ClockQRCodeResponse;
 import be.ahm282.QuickClock.application.dto.response.ClockResponse;
+import be.ahm282.QuickClock.application.dto.response.WorkHoursReportRow;
 import be.ahm282.QuickClock.application.dto.response.WorkHoursResponse;
 import be.ahm282.QuickClock.application.services.ClockService;
 import be.ahm282.QuickClock.application.services.QRCodeService;
+import be.ahm282.QuickClock.application.services.WorkHoursReportService;
 import be.ahm282.QuickClock.application.services.WorkHoursService;
 import be.ahm282.QuickClock.domain.exception.RateLimitException;
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+import be.ahm282.QuickClock.domain.model.ClockHistoryCursor;
+import be.ahm282.QuickClock.domain.model.ClockHistoryPage;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
-import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
 import be.ahm282.QuickClock.infrastructure.mapper.ClockResponseMapper;
 import be.ahm282.QuickClock.infrastructure.security.SecurityUtil;
 import be.ahm282.QuickClock.infrastructure.security.service.RateLimitService;
 import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrScanPushService;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrSessionSubscriptions;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/clock")
 public class ClockController {
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final long HISTORY_EXPORT_TIMEOUT_MILLIS = Duration.ofMinutes(10).toMillis();
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final ClockService clockService;
     private final QRCodeService qrCodeService;
     private final ClockResponseMapper responseMapper;
     private final RateLimitService rateLimitService;
     private final SecurityUtil securityUtil;
     private final QrScanPushService qrScanPushService;
+    private final QrSessionSubscriptions qrSessionSubscriptions;
     private final WorkHoursService workHoursService;
+    private final WorkHoursReportService workHoursReportService;
 
     public ClockController(ClockService clockService,
                            QRCodeService qrCodeService,
@@ -45,14 +65,18 @@ public class ClockController {
                            RateLimitService rateLimitService,
                            SecurityUtil securityUtil,
                            QrScanPushService qrScanPushService,
-                           WorkHoursService workHoursService) {
+                           QrSessionSubscriptions qrSessionSubscriptions,
+                           WorkHoursService workHoursService,
+                           WorkHoursReportService workHoursReportService) {
         this.clockService = clockService;
         this.qrCodeService = qrCodeService;
         this.responseMapper = responseMapper;
         this.rateLimitService = rateLimitService;
         this.securityUtil = securityUtil;
         this.qrScanPushService = qrScanPushService;
+        this.qrSessionSubscriptions = qrSessionSubscriptions;
         this.workHoursService = workHoursService;
+        this.workHoursReportService = workHoursReportService;
     }
 
     // -------------------------------------------------------------------------
@@ -61,16 +85,16 @@ public class ClockController {
 
     @PostMapping("/in")
     @ResponseStatus(HttpStatus.CREATED)
-    public ClockResponse clockIn(HttpServletRequest request) {
-        Long userId = securityUtil.extractUserIdFromRequestToken(request);
+    public ClockResponse clockIn() {
+        Long userId = securityUtil.getCurrentUserId();
         ClockRecord record = clockService.clockIn(userId);
         return responseMapper.toDTO(record);
     }
 
     @PostMapping("/out")
     @ResponseStatus(HttpStatus.CREATED)
-    public ClockResponse clockOut(HttpServletRequest request) {
-        Long userId = securityUtil.extractUserIdFromRequestToken(request);
+    public ClockResponse clockOut() {
+        Long userId = securityUtil.getCurrentUserId();
         ClockRecord record = clockService.clockOut(userId);
         return responseMapper.toDTO(record);
     }
@@ -79,65 +103,109 @@ public class ClockController {
     // History endpoints
     // - Admin / Super Admin: can read any user's history
     // - Others: only their own
+    // - Without cursor/limit: the full history as a plain array, as before pagination existed
+    // - With cursor and/or limit: one keyset page; pass the returned nextCursor to fetch the next (older) page
     // -------------------------------------------------------------------------
+    @GetMapping(value = "/history/{userId}", params = {"!cursor", "!limit"})
+    public List<ClockResponse> getHistory(@PathVariable Long userId) {
+        requireHistoryAccess(userId);
+        return toResponses(clockService.getHistory(userId));
+    }
+
     @GetMapping("/history/{userId}")
-    public List<ClockResponse> getHistory(@PathVariable Long userId, HttpServletRequest request) {
+    public ClockHistoryPageResponse getHistoryPage(@PathVariable Long userId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "" + DEFAULT_HISTORY_PAGE_SIZE) int limit) {
+        requireHistoryAccess(userId);
+        return toPageResponse(clockService.getHistoryPage(userId, decodeCursor(cursor), limit));
+    }
+
+    @GetMapping(value = "/history/me", params = {"!cursor", "!limit"})
+    public List<ClockResponse> getMyHistory() {
+        Long userId = securityUtil.getCurrentUserId();
+        return toResponses(clockService.getHistory(userId));
+    }
+
+    @GetMapping("/history/me")
+    public ClockHistoryPageResponse getMyHistoryPage(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "" + DEFAULT_HISTORY_PAGE_SIZE) int limit) {
+        Long userId = securityUtil.getCurrentUserId();
+        return toPageResponse(clockService.getHistoryPage(userId, decodeCursor(cursor), limit));
+    }
+
+    private void requireHistoryAccess(Long userId) {
         Authentication auth = securityUtil.getAuthenticationOrThrow();
 
         boolean isAdmin = securityUtil.hasAdminRole(auth);
         if (!isAdmin) {
-            Long tokenUserId = securityUtil.extractUserIdFromRequestToken(request);
+            Long tokenUserId = securityUtil.getCurrentUserId();
             if (!userId.equals(tokenUserId)) {
                 throw new AccessDeniedException("You are not allowed to view another user's history.");
             }
         }
-
-        return clockService.getHistory(userId)
-                .stream()
-                .map(responseMapper::toDTO)
-                .toList();
     }
 
-    @GetMapping("/history/me")
-    public List<ClockResponse> getMyHistory(HttpServletRequest request) {
-        Long userId = securityUtil.extractUserIdFromRequestToken(request);
-        return clockService.getHistory(userId)
-                .stream()
-                .map(responseMapper::toDTO)
-                .toList();
+    /**
+     * Streams a user's full history as NDJSON (one ClockResponse per line), newest first.
+     * Records are read page by page, so memory use does not depend on the size of the history.
+     */
+    @GetMapping(value = "/history/{userId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> exportHistory(@PathVariable Long userId) {
+        securityUtil.requireAdmin();
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(HISTORY_EXPORT_TIMEOUT_MILLIS);
+        Thread.ofVirtual().name("history-export-" + userId).start(() -> {
+            try {
+                ClockHistoryCursor cursor = null;
+                do {
+                    ClockHistoryPage page = clockService.getHistoryPage(userId, cursor, ClockService.MAX_HISTORY_PAGE_SIZE);
+                    for (ClockRecord record : page.records()) {
+                        emitter.send(responseMapper.toDTO(record), MediaType.APPLICATION_JSON);
+                        emitter.send("\n", MediaType.TEXT_PLAIN);
+                    }
+                    cursor = page.nextCursor();
+                } while (cursor != null);
+
+                emitter.complete();
+            } catch (Exception ex) {
+                emitter.completeWithError(ex);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
     }
 
     @GetMapping("/status/me")
-    public Map<String, Object> getMyCurrentStatus(HttpServletRequest request) {
-        Long userId = securityUtil.extractUserIdFromRequestToken(request);
-        var latestRecord = clockService.getHistory(userId)
-                .stream()
-                .findFirst();
-        
-        boolean isClockedIn = latestRecord
-                .map(record -> record.getType() == ClockRecordType.IN)
+    public Map<String, Object> getMyCurrentStatus() {
+        Long userId = securityUtil.getCurrentUserId();
+        var status = clockService.getCurrentStatus(userId);
+
+        boolean isClockedIn = status
+                .map(ClockStatus::isClockedIn)
                 .orElse(false);
 
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("isClockedIn", isClockedIn);
 
-        latestRecord.ifPresent(record -> {
-            response.put("lastClockType", record.getType().toString());
-            response.put("lastClockTime", record.getRecordedAt().toString());
+        status.ifPresent(s -> {
+            response.put("lastClockType", s.lastType().toString());
+            response.put("lastClockTime", s.lastRecordedAt().toString());
         });
 
         return response;
     }
 
     @GetMapping("/hours/me")
-    public WorkHoursResponse getMyWorkHours(HttpServletRequest request) {
-        Long userId = securityUtil.extractUserIdFromRequestToken(request);
+    public WorkHoursResponse getMyWorkHours() {
+        Long userId = securityUtil.getCurrentUserId();
         return workHoursService.calculateWorkHours(userId);
     }
 
     @GetMapping("/activity/me")
-    public List<ClockResponse> getMyTodayActivities(HttpServletRequest request) {
-        Long userId = securityUtil.extractUserIdFromRequestToken(request);
+    public List<ClockResponse> getMyTodayActivities() {
+        Long userId = securityUtil.getCurrentUserId();
 
         return clockService.getTodayActivities(userId)
                 .stream()
@@ -161,6 +229,13 @@ public class ClockController {
         return qrCodeService.generateClockOutQRCode(publicId);
     }
 
+    // One request per kiosk screen refresh instead of one per employee
+    @PostMapping("/qr/generate/batch")
+    public List<ClockQRCodeBatchItemResponse> generateQRCodes(@RequestBody @Valid ClockQRCodeBatchRequest request) {
+        securityUtil.requireKioskOrAdmin();
+        return qrCodeService.generateQRCodes(request.publicIds(), request.type());
+    }
+
     // -------------------------------------------------------------------------
     // Clock in/out endpoints (employee flow, initiated from user device)
     // -------------------------------------------------------------------------
@@ -174,7 +249,7 @@ public class ClockController {
             throw new RateLimitException("Too many QR code clock-in attempts. Please try again later.");
         }
 
-        Long authenticatedUserId = securityUtil.extractUserIdFromRequestToken(httpRequest);
+        Long authenticatedUserId = securityUtil.getCurrentUserId();
         ClockRecord record = clockService.clockInWithQR(request.getToken(), authenticatedUserId);
         return responseMapper.toDTO(record);
     }
@@ -188,7 +263,7 @@ public class ClockController {
             throw new RateLimitException("Too many QR code clock-out attempts. Please try again later.");
         }
 
-        Long authenticatedUserId = securityUtil.extractUserIdFromRequestToken(httpRequest);
+        Long authenticatedUserId = securityUtil.getCurrentUserId();
         ClockRecord record = clockService.clockOutWithQR(request.getToken(), authenticatedUserId);
         return responseMapper.toDTO(record);
     }
@@ -221,10 +296,125 @@ public class ClockController {
         return responseMapper.toDTO(record);
     }
 
+    // -------------------------------------------------------------------------
+    // Admin reports
+    // -------------------------------------------------------------------------
+
+    /**
+     * Hours worked by every active employee between two local dates (inclusive),
+     * streamed as CSV (default) or NDJSON (format=ndjson), one employee per line.
+     */
+    @GetMapping(value = "/admin/hours/report", produces = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResponseBodyEmitter> workHoursReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        securityUtil.requireAdmin();
+
+        boolean ndjson = switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> false;
+            case "ndjson" -> true;
+            default -> throw new ValidationException("Unsupported report format: " + format);
+        };
+
+        // Built before the response starts, so invalid ranges still get a regular error response
+        List<WorkHoursReportRow> rows = workHoursReportService.buildReport(from, to);
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(HISTORY_EXPORT_TIMEOUT_MILLIS);
+        Thread.ofVirtual().name("hours-report").start(() -> {
+            try {
+                if (!ndjson) {
+                    emitter.send("public_id,username,display_name,hours,days_worked\n", TEXT_CSV);
+                }
+                for (WorkHoursReportRow row : rows) {
+                    if (ndjson) {
+                        emitter.send(row, MediaType.APPLICATION_JSON);
+                        emitter.send("\n", MediaType.TEXT_PLAIN);
+                    } else {
+                        emitter.send(toCsvLine(row), TEXT_CSV);
+                    }
+                }
+                emitter.complete();
+            } catch (Exception ex) {
+                emitter.completeWithError(ex);
+            }
+        });
+
+        String filename = "work-hours-" + from + "-" + to + (ndjson ? ".ndjson" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : TEXT_CSV)
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .body(emitter);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+    private ClockHistoryCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : ClockHistoryCursor.decode(cursor);
+    }
+
+    private static String toCsvLine(WorkHoursReportRow row) {
+        return row.publicId() + "," +
+                csvField(row.username()) + "," +
+                csvField(row.displayName()) + "," +
+                row.hours() + "," +
+                row.daysWorked() + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private List<ClockResponse> toResponses(List<ClockRecord> records) {
+        return records.stream()
+                .map(responseMapper::toDTO)
+                .toList();
+    }
+
+    private ClockHistoryPageResponse toPageResponse(ClockHistoryPage page) {
+        List<ClockResponse> items = toResponses(page.records());
+        String nextCursor = page.nextCursor() != null ? page.nextCursor().encode() : null;
+        return new ClockHistoryPageResponse(items, nextCursor);
+    }
 
     // -------------------------------------------------------------------------
     // Server-Sent Events for QR Scan Notifications
     // -------------------------------------------------------------------------
+    // One long-lived stream per kiosk session; token ids are (un)subscribed as the QR codes rotate
+    @GetMapping(
+            value = "/qr/stream/session",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<SseEmitter> streamQrSession() {
+        securityUtil.requireKioskOrAdmin();
+        Authentication auth = securityUtil.getAuthenticationOrThrow();
+        SseEmitter emitter = qrScanPushService.openSession(auth.getName());
+
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .header("Cache-Control", "no")
+                .body(emitter);
+    }
+
+    @PostMapping("/qr/stream/session/{sessionId}/subscriptions")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void updateQrSessionSubscriptions(@PathVariable String sessionId,
+                                             @RequestBody @Valid QrStreamSubscriptionRequest request) {
+        securityUtil.requireKioskOrAdmin();
+        Authentication auth = securityUtil.getAuthenticationOrThrow();
+        qrSessionSubscriptions.update(
+                sessionId,
+                auth.getName(),
+                request.subscribeOrEmpty(),
+                request.unsubscribeOrEmpty()
+        );
+    }
+
     @GetMapping(
             value = "/qr/stream/{tokenId}",
             produces = MediaType.TEXT_EVENT_STREAM_VALUE
@@ -4,7 +4,6 @@ import be.ahm282.QuickClock.application.dto.response.InviteCodeResponse;
 import be.ahm282.QuickClock.application.ports.in.InviteCodeUseCase;
 import be.ahm282.QuickClock.domain.model.InviteCode;
 import be.ahm282.QuickClock.infrastructure.security.SecurityUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,9 +27,9 @@ public class InviteController {
 
     @PostMapping // Maps to POST /api/admin/invites
     @ResponseStatus(HttpStatus.CREATED)
-    public InviteCodeResponse createInvite(HttpServletRequest request) {
+    public InviteCodeResponse createInvite() {
         securityUtil.requireAdmin();
-        var userId = securityUtil.extractUserIdFromRequestToken(request);
+        var userId = securityUtil.getCurrentUserId();
 
         InviteCode invite = inviteCodeUseCase.createInviteCode(userId);
         return toDto(invite);
@@ -57,10 +56,10 @@ public class InviteController {
 
     @PostMapping("/{code}/revoke")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void revokeInvite(@PathVariable String code, HttpServletRequest request) {
+    public void revokeInvite(@PathVariable String code) {
         securityUtil.requireAdmin(); // Use SecurityUtil for auth check
 
-        Long adminId = securityUtil.extractUserIdFromRequestToken(request);
+        Long adminId = securityUtil.getCurrentUserId();
         inviteCodeUseCase.revokeInviteCode(code, adminId);
     }
 
@@ -0,0 +1,94 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs push notifications off the request thread, and only once the surrounding transaction has committed.
+ * A notification for a clock record that is rolled back is never sent, and a slow client no longer
+ * holds the database connection or delays the caller's response.
+ * <p>
+ * The queue is bounded: when it is full the notification is dropped and counted. Clients fall back to
+ * polling the clock status, so losing a push under overload is preferable to unbounded memory growth.
+ */
+@Component
+public class AfterCommitNotificationDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(AfterCommitNotificationDispatcher.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public AfterCommitNotificationDispatcher(MeterRegistry meterRegistry,
+                                             @Value("${app.notifications.dispatch-threads:4}") int threads,
+                                             @Value("${app.notifications.dispatch-queue-capacity:1000}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("notify-dispatch-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.rejected = Counter.builder("quickclock.notifications.rejected")
+                .description("Notifications dropped because the dispatch queue was full")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.notifications.queue.size", executor, e -> e.getQueue().size())
+                .description("Notifications waiting for a dispatch thread")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.notifications.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Notifications currently being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the task once the current transaction commits, or right away when there is no transaction.
+     */
+    public void dispatchAfterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(task);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(task);
+            }
+        });
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    log.warn("Notification dispatch failed: {}", ex.toString());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            log.warn("Notification dispatch queue is full, dropping notification");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
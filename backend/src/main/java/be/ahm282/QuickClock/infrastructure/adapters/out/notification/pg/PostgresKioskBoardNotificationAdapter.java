@@ -0,0 +1,90 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import be.ahm282.QuickClock.application.ports.out.KioskBoardNotificationPort;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.AfterCommitNotificationDispatcher;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.KioskBoardPushService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Fans kiosk board deltas out to every backend instance. Whichever node relays a clock event publishes it
+ * with pg_notify, and every node pushes it to the kiosks connected to it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "postgres")
+public class PostgresKioskBoardNotificationAdapter implements KioskBoardNotificationPort, PostgresNotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(PostgresKioskBoardNotificationAdapter.class);
+
+    private static final String CHANNEL = "kiosk_board";
+    private static final String FIELD_SEPARATOR = "|";
+
+    record ClockChange(Long userId, ClockRecordType lastClockType, Instant lastClockTime) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KioskBoardPushService kioskBoardPushService;
+    private final AfterCommitNotificationDispatcher dispatcher;
+
+    public PostgresKioskBoardNotificationAdapter(JdbcTemplate jdbcTemplate,
+                                                 KioskBoardPushService kioskBoardPushService,
+                                                 AfterCommitNotificationDispatcher dispatcher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kioskBoardPushService = kioskBoardPushService;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void notifyClockChanged(Long userId, ClockRecordType lastClockType, Instant lastClockTime) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL,
+                encodePayload(userId, lastClockType, lastClockTime));
+    }
+
+    static String encodePayload(Long userId, ClockRecordType lastClockType, Instant lastClockTime) {
+        return String.join(FIELD_SEPARATOR,
+                Long.toString(userId),
+                lastClockType.name(),
+                Long.toString(lastClockTime.toEpochMilli()));
+    }
+
+    static Optional<ClockChange> decodePayload(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new ClockChange(
+                    Long.parseLong(parts[0]),
+                    ClockRecordType.valueOf(parts[1]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[2]))
+            ));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        Optional<ClockChange> change = decodePayload(payload);
+        if (change.isEmpty()) {
+            log.warn("Ignoring malformed kiosk board notification: {}", payload);
+            return;
+        }
+
+        // The user lookup runs on the dispatcher, not on the listener thread
+        ClockChange clockChange = change.get();
+        dispatcher.dispatchAfterCommit(() -> kioskBoardPushService.publishClockChange(
+                clockChange.userId(), clockChange.lastClockType(), clockChange.lastClockTime()));
+    }
+}
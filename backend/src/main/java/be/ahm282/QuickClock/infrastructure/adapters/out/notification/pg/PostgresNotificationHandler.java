@@ -0,0 +1,11 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+/**
+ * Receives the payloads NOTIFY'd on one channel. Called on the listener thread, so implementations
+ * hand any real work to the dispatcher.
+ */
+interface PostgresNotificationHandler {
+    String channel();
+
+    void handle(String payload);
+}
@@ -0,0 +1,119 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the one LISTEN connection of this node and routes each notification to the handler of its channel.
+ * The connection lives outside the pool and is re-established when it drops.
+ */
+@Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "postgres")
+public class PostgresNotificationListener {
+    private static final Logger log = LoggerFactory.getLogger(PostgresNotificationListener.class);
+
+    private static final int POLL_TIMEOUT_MILLIS = 5_000;
+    private static final long RECONNECT_DELAY_MILLIS = 2_000;
+
+    @FunctionalInterface
+    interface ListenerConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final Map<String, PostgresNotificationHandler> handlers = new HashMap<>();
+    private final ListenerConnectionFactory connectionFactory;
+    private final long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresNotificationListener(List<PostgresNotificationHandler> handlers,
+                                        @Value("${spring.datasource.url}") String url,
+                                        @Value("${spring.datasource.username:}") String username,
+                                        @Value("${spring.datasource.password:}") String password) {
+        this(handlers, () -> DriverManager.getConnection(url, username, password), RECONNECT_DELAY_MILLIS);
+    }
+
+    PostgresNotificationListener(List<PostgresNotificationHandler> handlers,
+                                 ListenerConnectionFactory connectionFactory,
+                                 long reconnectDelayMillis) {
+        handlers.forEach(handler -> this.handlers.put(handler.channel(), handler));
+        this.connectionFactory = connectionFactory;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @PostConstruct
+    void startListening() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("pg-notify-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    void stopListening() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connectionFactory.open()) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : handlers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                log.info("Listening for notifications on channels {}", handlers.keySet());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) continue;
+
+                    for (PGNotification notification : notifications) {
+                        route(notification);
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) return;
+                log.warn("Notification listener connection failed, reconnecting: {}", ex.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void route(PGNotification notification) {
+        PostgresNotificationHandler handler = handlers.get(notification.getName());
+        if (handler == null) return;
+
+        try {
+            handler.handle(notification.getParameter());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to handle notification on {}: {}", notification.getName(), ex.toString());
+        }
+    }
+}
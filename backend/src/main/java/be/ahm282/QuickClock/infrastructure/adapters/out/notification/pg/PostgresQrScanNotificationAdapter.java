@@ -0,0 +1,93 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import be.ahm282.QuickClock.application.dto.response.QrScanStatusResponse;
+import be.ahm282.QuickClock.application.ports.out.QrScanNotificationPort;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.AfterCommitNotificationDispatcher;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrScanPushService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Delivers QR scan events across backend instances: the node handling the phone's POST publishes
+ * with pg_notify, and every node (itself included) pushes the event to the kiosk if it holds that emitter.
+ * <p>
+ * NOTIFY is transactional, so events are only delivered once the clock record has committed.
+ * Notifications arrive through {@link PostgresNotificationListener}; the SSE writes themselves go
+ * through the dispatcher so a slow kiosk cannot stall the listener.
+ */
+@Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "postgres")
+public class PostgresQrScanNotificationAdapter implements QrScanNotificationPort, PostgresNotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(PostgresQrScanNotificationAdapter.class);
+
+    private static final String CHANNEL = "qr_scan";
+    private static final String FIELD_SEPARATOR = "|";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QrScanPushService qrScanPushService;
+    private final AfterCommitNotificationDispatcher dispatcher;
+
+    public PostgresQrScanNotificationAdapter(JdbcTemplate jdbcTemplate,
+                                             QrScanPushService qrScanPushService,
+                                             AfterCommitNotificationDispatcher dispatcher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.qrScanPushService = qrScanPushService;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void notifyScanned(String tokenId, Long userId, String direction, Instant clockedAt) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL,
+                encodePayload(tokenId, userId, direction, clockedAt));
+    }
+
+    // Token ids are Base64url and directions are IN/OUT, so the separator cannot occur inside a field
+    static String encodePayload(String tokenId, Long userId, String direction, Instant clockedAt) {
+        return String.join(FIELD_SEPARATOR,
+                tokenId,
+                Long.toString(userId),
+                direction,
+                Long.toString(clockedAt.toEpochMilli()));
+    }
+
+    static Optional<QrScanStatusResponse> decodePayload(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4 || parts[0].isEmpty() || parts[2].isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new QrScanStatusResponse(
+                    parts[0],
+                    Long.parseLong(parts[1]),
+                    parts[2],
+                    Instant.ofEpochMilli(Long.parseLong(parts[3]))
+            ));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        Optional<QrScanStatusResponse> status = decodePayload(payload);
+        if (status.isEmpty()) {
+            log.warn("Ignoring malformed QR scan notification: {}", payload);
+            return;
+        }
+
+        String tokenId = status.get().tokenId();
+        dispatcher.dispatchAfterCommit(() -> qrScanPushService.notifyScanned(tokenId, status.get()));
+    }
+}
@@ -0,0 +1,131 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import be.ahm282.QuickClock.domain.exception.NotFoundException;
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrScanPushService;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrSessionSubscriptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Routes kiosk subscription changes to the node holding the session stream, so the POST does not have to
+ * land on the same instance as the stream. Changes for a session held here are applied (and validated) at
+ * once; otherwise they are published with pg_notify and the holding node applies them, shortly after the
+ * request has returned.
+ * <p>
+ * A payload is limited to 8000 bytes, so large changes are split into several notifications, unsubscriptions
+ * first. Each is applied on the listener thread: it is only map bookkeeping, and it keeps them in order.
+ */
+@Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "postgres")
+public class PostgresQrSessionSubscriptionAdapter implements QrSessionSubscriptions, PostgresNotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(PostgresQrSessionSubscriptionAdapter.class);
+
+    private static final String CHANNEL = "qr_session";
+    private static final String FIELD_SEPARATOR = "|";
+    private static final String ID_SEPARATOR = ",";
+
+    // Token ids are at most a few dozen Base64url characters, which keeps a payload well under 8000 bytes
+    static final int IDS_PER_NOTIFICATION = 100;
+
+    record SubscriptionChange(String sessionId, List<String> subscribe, List<String> unsubscribe, String owner) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QrScanPushService qrScanPushService;
+
+    public PostgresQrSessionSubscriptionAdapter(JdbcTemplate jdbcTemplate, QrScanPushService qrScanPushService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.qrScanPushService = qrScanPushService;
+    }
+
+    @Override
+    public void update(String sessionId, String owner, Collection<String> subscribe, Collection<String> unsubscribe) {
+        if (qrScanPushService.holdsSession(sessionId)) {
+            qrScanPushService.updateSubscriptions(sessionId, owner, subscribe, unsubscribe);
+            return;
+        }
+
+        for (String payload : encodePayloads(sessionId, owner, subscribe, unsubscribe)) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        }
+    }
+
+    // Session and token ids are Base64url; the owner goes last, so it may contain the separators
+    static List<String> encodePayloads(String sessionId,
+                                       String owner,
+                                       Collection<String> subscribe,
+                                       Collection<String> unsubscribe) {
+        List<String> payloads = new ArrayList<>();
+        for (List<String> chunk : chunks(unsubscribe)) {
+            payloads.add(encodePayload(sessionId, List.of(), chunk, owner));
+        }
+        for (List<String> chunk : chunks(subscribe)) {
+            payloads.add(encodePayload(sessionId, chunk, List.of(), owner));
+        }
+        return payloads;
+    }
+
+    private static String encodePayload(String sessionId, List<String> subscribe, List<String> unsubscribe, String owner) {
+        return String.join(FIELD_SEPARATOR,
+                sessionId,
+                String.join(ID_SEPARATOR, subscribe),
+                String.join(ID_SEPARATOR, unsubscribe),
+                owner);
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> all = List.copyOf(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IDS_PER_NOTIFICATION) {
+            chunks.add(all.subList(from, Math.min(from + IDS_PER_NOTIFICATION, all.size())));
+        }
+        return chunks;
+    }
+
+    static Optional<SubscriptionChange> decodePayload(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4 || parts[0].isEmpty() || parts[3].isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new SubscriptionChange(parts[0], splitIds(parts[1]), splitIds(parts[2]), parts[3]));
+    }
+
+    private static List<String> splitIds(String ids) {
+        return ids.isEmpty() ? List.of() : List.of(ids.split(ID_SEPARATOR));
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        Optional<SubscriptionChange> change = decodePayload(payload);
+        if (change.isEmpty()) {
+            log.warn("Ignoring malformed QR session notification: {}", payload);
+            return;
+        }
+
+        // Every node receives the change; only the one holding the stream applies it
+        SubscriptionChange c = change.get();
+        if (!qrScanPushService.holdsSession(c.sessionId())) {
+            return;
+        }
+
+        try {
+            qrScanPushService.updateSubscriptions(c.sessionId(), c.owner(), c.subscribe(), c.unsubscribe());
+        } catch (NotFoundException | ValidationException e) {
+            log.debug("Dropping QR session subscription change for {}: {}", c.sessionId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import be.ahm282.QuickClock.application.dto.response.UserSummaryResponse;
+import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the kiosk employee board over SSE: one "snapshot" event on connect,
+ * then an "employee" delta event each time an employee clocks in or out.
+ */
+@Service
+public class KioskBoardPushService {
+    // Kiosks stay connected for a whole shift; the client reconnects (and gets a fresh snapshot) afterwards
+    private static final long SSE_TIMEOUT_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final SseSendPipeline sendPipeline;
+    private final UserRepositoryPort userRepositoryPort;
+    private final Set<SseConnection> connections = ConcurrentHashMap.newKeySet();
+
+    public KioskBoardPushService(SseSendPipeline sendPipeline,
+                                 UserRepositoryPort userRepositoryPort,
+                                 MeterRegistry meterRegistry) {
+        this.sendPipeline = sendPipeline;
+        this.userRepositoryPort = userRepositoryPort;
+        Gauge.builder("quickclock.sse.connections", connections, Set::size)
+                .tag("stream", "kiosk-board")
+                .description("Open SSE connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The connection is registered before the snapshot is loaded, so no delta committed in between is lost.
+     * Deltas arriving meanwhile are buffered and sent after the snapshot; each one carries the employee's
+     * full status, so replaying one the snapshot already reflects is harmless.
+     */
+    public SseEmitter subscribe(Supplier<List<UserSummaryResponse>> snapshotLoader) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        SseConnection connection = sendPipeline.open(emitter, connections::remove);
+        connection.hold();
+        connections.add(connection);
+
+        List<UserSummaryResponse> snapshot;
+        try {
+            snapshot = snapshotLoader.get();
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.releaseWith("snapshot", snapshot);
+
+        return emitter;
+    }
+
+    /**
+     * Publishes the employee's new status to this node's kiosks. Users that are not on the board are skipped.
+     * Only the board fields are read, and nothing at all when no kiosk is connected here.
+     */
+    public void publishClockChange(Long userId, ClockRecordType lastClockType, Instant lastClockTime) {
+        if (connections.isEmpty()) {
+            return;
+        }
+
+        userRepositoryPort.findActiveEmployeeBoardProfile(userId)
+                .map(profile -> new UserSummaryResponse(
+                        profile.publicId(),
+                        profile.displayName(),
+                        profile.displayNameArabic(),
+                        lastClockType.name(),
+                        lastClockTime
+                ))
+                .ifPresent(this::publishDelta);
+    }
+
+    public void publishDelta(UserSummaryResponse employee) {
+        connections.forEach(connection -> connection.send("employee", employee));
+    }
+
+    /**
+     * Queues a heartbeat every 15 seconds to keep connections alive
+     * and prevent proxy timeouts.
+     */
+    @Scheduled(fixedRate = 15000)
+    public void sendHeartbeat() {
+        connections.forEach(SseConnection::sendHeartbeat);
+    }
+}
@@ -1,92 +1,209 @@
 package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
 
 import be.ahm282.QuickClock.application.dto.response.QrScanStatusResponse;
+import be.ahm282.QuickClock.application.dto.response.QrStreamSessionResponse;
+import be.ahm282.QuickClock.domain.exception.NotFoundException;
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.security.SecureRandom;
 import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tells kiosks when one of their QR codes has been scanned. Two ways to listen:
+ * - one short-lived stream per token id, completed after the scan;
+ * - one long-lived stream per kiosk session, onto which the kiosk subscribes the token ids it is
+ *   currently showing and unsubscribes them as they rotate. This avoids a new connection per QR code.
+ */
 @Service
 public class QrScanPushService {
     private static final Logger log = LoggerFactory.getLogger(QrScanPushService.class);
 
     // 30s + 5s skew
     private static final long SSE_TIMEOUT_MILLIS = Duration.ofSeconds(35).toMillis();
+    // Session streams live as long as the kiosk board stream; the client reopens (and resubscribes) afterwards
+    private static final long SESSION_TIMEOUT_MILLIS = Duration.ofHours(1).toMillis();
 
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    // Both directions for the largest kiosk batch, with room for the previous rotation
+    static final int MAX_TOKENS_PER_SESSION = 2000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SseSendPipeline sendPipeline;
+    private final Map<String, SseConnection> connections = new ConcurrentHashMap<>();
+    private final Map<String, KioskSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, KioskSession> sessionsByTokenId = new ConcurrentHashMap<>();
+
+    private static final class KioskSession {
+        private final String id;
+        private final String owner;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        private SseConnection connection;
+        private boolean closed;
+
+        private KioskSession(String id, String owner) {
+            this.id = id;
+            this.owner = owner;
+        }
+    }
+
+    public QrScanPushService(SseSendPipeline sendPipeline, MeterRegistry meterRegistry) {
+        this.sendPipeline = sendPipeline;
+        Gauge.builder("quickclock.sse.connections", connections, Map::size)
+                .tag("stream", "qr-scan")
+                .description("Open SSE connections")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.sse.connections", sessions, Map::size)
+                .tag("stream", "qr-scan-session")
+                .description("Open SSE connections")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.sse.subscriptions", sessionsByTokenId, Map::size)
+                .description("QR token ids subscribed on kiosk session streams")
+                .register(meterRegistry);
+    }
 
     public SseEmitter subscribe(String tokenId) {
         SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
-        emitters.put(tokenId, emitter);
-
-        emitter.onCompletion(() -> emitters.remove(tokenId));
-        emitter.onTimeout(() -> {
-            emitters.remove(tokenId);
-            emitter.complete();
-        });
-        emitter.onError(ex -> {
-            emitters.remove(tokenId);
-            log.debug("SSE connection error for tokenId {}: {}", tokenId, ex.getMessage());
-        });
+        // Only remove our own entry; the token may have been re-subscribed since
+        SseConnection connection = sendPipeline.open(emitter, closed -> connections.remove(tokenId, closed));
+        connections.put(tokenId, connection);
 
         // Initial event so the client can start polling immediately
-        CompletableFuture.runAsync(() -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("init")
-                        .data("connected"));
-            } catch (Exception ex) {
-                emitters.remove(tokenId);
-            }
-        });
+        connection.send("init", "connected");
 
         return emitter;
     }
 
+    /**
+     * Opens a session stream. Its first event, "session", carries the id to subscribe token ids under.
+     */
+    public SseEmitter openSession(String owner) {
+        KioskSession session = new KioskSession(newSessionId(), owner);
+        SseEmitter emitter = new SseEmitter(SESSION_TIMEOUT_MILLIS);
+        session.connection = sendPipeline.open(emitter, closed -> closeSession(session));
+        sessions.put(session.id, session);
+
+        session.connection.send("session", new QrStreamSessionResponse(session.id));
+
+        return emitter;
+    }
+
+    /**
+     * Whether this node holds the session's stream. Subscription changes for a session held elsewhere
+     * are routed to its node by {@link QrSessionSubscriptions}.
+     */
+    public boolean holdsSession(String sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    /**
+     * Applies unsubscriptions first, then subscriptions. A token id subscribed by another session moves here.
+     */
+    public void updateSubscriptions(String sessionId,
+                                    String owner,
+                                    Collection<String> subscribe,
+                                    Collection<String> unsubscribe) {
+        KioskSession session = sessions.get(sessionId);
+        if (session == null || !session.owner.equals(owner)) {
+            throw new NotFoundException("QR stream session not found");
+        }
+
+        synchronized (session) {
+            if (session.closed) {
+                throw new NotFoundException("QR stream session not found");
+            }
+
+            for (String tokenId : unsubscribe) {
+                releaseToken(tokenId, session);
+            }
+
+            if (session.tokenIds.size() + subscribe.size() > MAX_TOKENS_PER_SESSION) {
+                throw new ValidationException("Too many QR token ids subscribed on this session");
+            }
+
+            for (String tokenId : subscribe) {
+                // Both sides of the move happen under the token's map entry, so two sessions taking the
+                // same token concurrently cannot both end up holding it
+                sessionsByTokenId.compute(tokenId, (id, previous) -> {
+                    if (previous != null && previous != session) {
+                        previous.tokenIds.remove(id);
+                    }
+                    session.tokenIds.add(id);
+                    return session;
+                });
+            }
+        }
+    }
+
     public void notifyScanned(String tokenId, QrScanStatusResponse status) {
-        SseEmitter emitter = emitters.remove(tokenId);
-        if (emitter == null) {
-            log.debug("No active SSE emitter for tokenId {}, dropping scan notification", tokenId);
+        SseConnection connection = connections.remove(tokenId);
+        if (connection != null) {
+            connection.sendAndComplete("scanned", status);
             return;
         }
 
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("scanned")
-                    .data(status));
-            emitter.complete();
-        } catch (IOException ex) {
-            log.debug("Failed to push scanned event for tokenId {}: {}", tokenId, ex.toString());
+        KioskSession session = releaseToken(tokenId, null);
+        if (session != null) {
+            session.connection.send("scanned", status);
+            return;
         }
+
+        log.debug("No active SSE emitter for tokenId {}, dropping scan notification", tokenId);
     }
 
     /**
-     * Sends a heartbeat every 15 seconds to keep connections alive
+     * Queues a heartbeat every 15 seconds to keep connections alive
      * and prevent proxy timeouts.
      */
     @Scheduled(fixedRate = 15000)
     public void sendHeartbeat() {
-        if (emitters.isEmpty()) return;
-
-        log.trace("Sending heartbeat to {} active emitters", emitters.size());
-
-        emitters.forEach((tokenId, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("ping")
-                        .data("keep-alive"));
-            } catch (IOException e) {
-                // If heartbeat fails, the connection is likely dead.
-                emitters.remove(tokenId);
-                log.debug("Heartbeat failed for {}, removing emitter.", tokenId);
+        if (connections.isEmpty() && sessions.isEmpty()) return;
+
+        log.trace("Sending heartbeat to {} active emitters and {} sessions", connections.size(), sessions.size());
+        connections.values().forEach(SseConnection::sendHeartbeat);
+        sessions.values().forEach(session -> session.connection.sendHeartbeat());
+    }
+
+    private void closeSession(KioskSession session) {
+        sessions.remove(session.id, session);
+        synchronized (session) {
+            session.closed = true;
+            List.copyOf(session.tokenIds).forEach(tokenId -> releaseToken(tokenId, session));
+        }
+    }
+
+    /**
+     * Drops a token id's subscription, atomically with its session's set. With a session given,
+     * only when that session still holds it. Returns the session it was taken from, if any.
+     */
+    private KioskSession releaseToken(String tokenId, KioskSession expected) {
+        KioskSession[] released = new KioskSession[1];
+        sessionsByTokenId.computeIfPresent(tokenId, (id, holder) -> {
+            if (expected != null && holder != expected) {
+                return holder;
             }
+            holder.tokenIds.remove(id);
+            released[0] = holder;
+            return null;
         });
+        return released[0];
+    }
+
+    private static String newSessionId() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 }
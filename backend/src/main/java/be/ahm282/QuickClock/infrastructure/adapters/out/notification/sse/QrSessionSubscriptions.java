@@ -0,0 +1,10 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import java.util.Collection;
+
+/**
+ * Applies a kiosk's subscription changes to its session stream, on whichever node holds that stream.
+ */
+public interface QrSessionSubscriptions {
+    void update(String sessionId, String owner, Collection<String> subscribe, Collection<String> unsubscribe);
+}
@@ -0,0 +1,172 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * One SSE client with its own send queue. At most one drain task runs per connection at a time,
+ * which keeps events in order without holding a thread while the queue is empty.
+ */
+final class SseConnection {
+    private static final String HEARTBEAT_EVENT = "ping";
+    private static final String HEARTBEAT_DATA = "keep-alive";
+
+    private record Pending(String name, Object data, boolean completeAfter) {}
+
+    private final SseEmitter emitter;
+    private final SseSendPipeline pipeline;
+    private final int maxPendingEvents;
+    private final Consumer<SseConnection> onClose;
+
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    private boolean draining;
+    private boolean held;
+    private boolean closed;
+
+    // System.nanoTime() when the write in progress started, 0 while idle
+    private volatile long sendStartedNanos;
+
+    SseConnection(SseEmitter emitter, SseSendPipeline pipeline, int maxPendingEvents, Consumer<SseConnection> onClose) {
+        this.emitter = emitter;
+        this.pipeline = pipeline;
+        this.maxPendingEvents = maxPendingEvents;
+        this.onClose = onClose;
+    }
+
+    void send(String name, Object data) {
+        enqueue(new Pending(name, data, false), false);
+    }
+
+    /**
+     * Sends the event, then completes the stream.
+     */
+    void sendAndComplete(String name, Object data) {
+        enqueue(new Pending(name, data, true), false);
+    }
+
+    /**
+     * A connection that already has events in flight needs no keep-alive, so the ping is skipped.
+     */
+    void sendHeartbeat() {
+        enqueue(new Pending(HEARTBEAT_EVENT, HEARTBEAT_DATA, false), true);
+    }
+
+    /**
+     * Buffers events without writing them until {@link #releaseWith} puts the opening event in front of them.
+     */
+    synchronized void hold() {
+        held = true;
+    }
+
+    void releaseWith(String name, Object data) {
+        synchronized (this) {
+            if (closed) return;
+
+            pending.addFirst(new Pending(name, data, false));
+            pipeline.eventQueued();
+            held = false;
+            if (!draining) {
+                draining = true;
+                pipeline.execute(this::drain);
+            }
+        }
+    }
+
+    private void enqueue(Pending event, boolean skipIfBusy) {
+        boolean overflow = false;
+        synchronized (this) {
+            if (closed || (skipIfBusy && draining)) return;
+
+            if (pending.size() >= maxPendingEvents) {
+                overflow = true;
+            } else {
+                pending.add(event);
+                pipeline.eventQueued();
+                if (!draining && !held) {
+                    draining = true;
+                    pipeline.execute(this::drain);
+                }
+            }
+        }
+
+        if (overflow) {
+            pipeline.recordOverflow();
+            abort(new IllegalStateException("SSE client is not keeping up"));
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null || closed) {
+                    draining = false;
+                    return;
+                }
+            }
+            pipeline.eventsDequeued(1);
+
+            long start = System.nanoTime();
+            sendStartedNanos = start;
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(next.name())
+                        .data(next.data()));
+                pipeline.recordSend(System.nanoTime() - start);
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away, or the emitter was already completed
+                pipeline.recordWriteFailure();
+                close();
+                return;
+            } finally {
+                sendStartedNanos = 0;
+            }
+
+            if (next.completeAfter()) {
+                close();
+                emitter.complete();
+                return;
+            }
+        }
+    }
+
+    boolean isSendStalled(long nowNanos, long timeoutNanos) {
+        long started = sendStartedNanos;
+        return started != 0 && nowNanos - started > timeoutNanos;
+    }
+
+    /**
+     * Drops pending events and ends the stream with an error. Only the bookkeeping happens on the calling
+     * thread (the stall sweep or a publisher): completing the emitter waits for the write in progress,
+     * so it runs on a virtual thread of its own. The stalled write itself is only unblocked by the
+     * container's write timeout; until then it holds nothing but its own virtual thread.
+     */
+    void abort(Throwable reason) {
+        if (markClosed()) {
+            pipeline.execute(() -> emitter.completeWithError(reason));
+        }
+    }
+
+    void close() {
+        markClosed();
+    }
+
+    private boolean markClosed() {
+        int dropped;
+        synchronized (this) {
+            if (closed) return false;
+            closed = true;
+            dropped = pending.size();
+            pending.clear();
+        }
+        pipeline.eventsDequeued(dropped);
+        pipeline.closed(this);
+        onClose.accept(this);
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import be.ahm282.QuickClock.application.ports.out.KioskBoardNotificationPort;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.AfterCommitNotificationDispatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+// Single-node delivery; see PostgresKioskBoardNotificationAdapter for multi-instance deployments
+@Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "local", matchIfMissing = true)
+public class SseKioskBoardNotificationAdapter implements KioskBoardNotificationPort {
+    private final KioskBoardPushService kioskBoardPushService;
+    private final AfterCommitNotificationDispatcher dispatcher;
+
+    public SseKioskBoardNotificationAdapter(KioskBoardPushService kioskBoardPushService,
+                                            AfterCommitNotificationDispatcher dispatcher) {
+        this.kioskBoardPushService = kioskBoardPushService;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void notifyClockChanged(Long userId, ClockRecordType lastClockType, Instant lastClockTime) {
+        dispatcher.dispatchAfterCommit(() ->
+                kioskBoardPushService.publishClockChange(userId, lastClockType, lastClockTime));
+    }
+}
@@ -2,18 +2,26 @@ package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
 
 import be.ahm282.QuickClock.application.dto.response.QrScanStatusResponse;
 import be.ahm282.QuickClock.application.ports.out.QrScanNotificationPort;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.AfterCommitNotificationDispatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+// Single-node delivery; see PostgresQrScanNotificationAdapter for multi-instance deployments
 @Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "local", matchIfMissing = true)
 public class SseQrScanNotificationAdapter implements QrScanNotificationPort {
     private final QrScanPushService qrScanPushService;
+    private final AfterCommitNotificationDispatcher dispatcher;
 
-    public SseQrScanNotificationAdapter(QrScanPushService qrScanPushService) {
+    public SseQrScanNotificationAdapter(QrScanPushService qrScanPushService,
+                                        AfterCommitNotificationDispatcher dispatcher) {
         this.qrScanPushService = qrScanPushService;
+        this.dispatcher = dispatcher;
     }
 
     @Override
     public void notifyScanned(String tokenId, Long userId, String direction, java.time.Instant clockedAt) {
-        qrScanPushService.notifyScanned(tokenId, new QrScanStatusResponse(tokenId, userId, direction, clockedAt));
+        QrScanStatusResponse status = new QrScanStatusResponse(tokenId, userId, direction, clockedAt);
+        dispatcher.dispatchAfterCommit(() -> qrScanPushService.notifyScanned(tokenId, status));
     }
 }
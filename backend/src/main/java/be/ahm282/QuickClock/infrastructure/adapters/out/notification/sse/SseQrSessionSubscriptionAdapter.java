@@ -0,0 +1,22 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// Single-node: the session is held here or not at all; see PostgresQrSessionSubscriptionAdapter for multi-instance deployments
+@Component
+@ConditionalOnProperty(name = "app.clocking.scan-notifications", havingValue = "local", matchIfMissing = true)
+public class SseQrSessionSubscriptionAdapter implements QrSessionSubscriptions {
+    private final QrScanPushService qrScanPushService;
+
+    public SseQrSessionSubscriptionAdapter(QrScanPushService qrScanPushService) {
+        this.qrScanPushService = qrScanPushService;
+    }
+
+    @Override
+    public void update(String sessionId, String owner, Collection<String> subscribe, Collection<String> unsubscribe) {
+        qrScanPushService.updateSubscriptions(sessionId, owner, subscribe, unsubscribe);
+    }
+}
@@ -0,0 +1,141 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Writes SSE events without blocking the caller. Each connection has its own small queue, drained on a
+ * virtual thread, so a stalled client only delays its own events; publishers and the heartbeat jobs
+ * just enqueue. A send that runs longer than the timeout, or a queue that overflows, closes that connection;
+ * the emitter is then completed on a virtual thread, never on the scheduler or a publisher thread.
+ */
+@Component
+public class SseSendPipeline {
+    private static final Logger log = LoggerFactory.getLogger(SseSendPipeline.class);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-send-", 0).factory());
+    private final Set<SseConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final long sendTimeoutNanos;
+    private final int maxPendingEvents;
+
+    private final Timer sendLatency;
+    private final Counter ioFailures;
+    private final Counter timeouts;
+    private final Counter overflows;
+
+    public SseSendPipeline(MeterRegistry meterRegistry,
+                           @Value("${app.sse.send-timeout-millis:5000}") long sendTimeoutMillis,
+                           @Value("${app.sse.max-pending-events:32}") int maxPendingEvents) {
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.maxPendingEvents = maxPendingEvents;
+
+        this.sendLatency = Timer.builder("quickclock.sse.send")
+                .description("Time spent writing one SSE event to a client")
+                .register(meterRegistry);
+        this.ioFailures = failureCounter(meterRegistry, "io", "SSE connections closed because a write failed");
+        this.timeouts = failureCounter(meterRegistry, "timeout", "SSE connections closed because a write stalled");
+        this.overflows = failureCounter(meterRegistry, "overflow", "SSE connections closed because too many events were pending");
+        Gauge.builder("quickclock.sse.queued", queued, AtomicInteger::get)
+                .description("SSE events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    private static Counter failureCounter(MeterRegistry meterRegistry, String reason, String description) {
+        return Counter.builder("quickclock.sse.closed")
+                .tag("reason", reason)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps a new emitter. onClose runs exactly once, however the connection ends.
+     */
+    SseConnection open(SseEmitter emitter, Consumer<SseConnection> onClose) {
+        SseConnection connection = new SseConnection(emitter, this, maxPendingEvents, onClose);
+        connections.add(connection);
+
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(() -> {
+            connection.close();
+            emitter.complete();
+        });
+        emitter.onError(ex -> {
+            connection.close();
+            log.debug("SSE connection error: {}", ex.getMessage());
+        });
+        return connection;
+    }
+
+    /**
+     * Closes connections whose current write has been blocked longer than the send timeout.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void expireStalledSends() {
+        long now = System.nanoTime();
+        connections.forEach(connection -> {
+            if (connection.isSendStalled(now, sendTimeoutNanos)) {
+                timeouts.increment();
+                connection.abort(new SseSendTimeoutException());
+            }
+        });
+    }
+
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    void eventQueued() {
+        queued.incrementAndGet();
+    }
+
+    void eventsDequeued(int count) {
+        queued.addAndGet(-count);
+    }
+
+    void recordSend(long nanos) {
+        sendLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordWriteFailure() {
+        ioFailures.increment();
+    }
+
+    void recordOverflow() {
+        overflows.increment();
+    }
+
+    void closed(SseConnection connection) {
+        connections.remove(connection);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static final class SseSendTimeoutException extends RuntimeException {
+        SseSendTimeoutException() {
+            super("SSE send timed out");
+        }
+    }
+}
@@ -7,12 +7,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JpaInvalidatedTokenRepository extends JpaRepository<InvalidatedTokenEntity, String> {
     Optional<InvalidatedTokenEntity> findByJti(String jti);
 
+    List<InvalidatedTokenEntity> findAllByExpiryTimeAfter(Instant cutoff);
+
     @Modifying
     @Query("delete from InvalidatedTokenEntity e where e.userId = ?1")
     void deleteByUserId(Long userId);
@@ -4,6 +4,8 @@ import be.ahm282.QuickClock.application.ports.out.InvalidatedTokenRepositoryPort
 import be.ahm282.QuickClock.domain.model.InvalidatedToken;
 import be.ahm282.QuickClock.infrastructure.mapper.InvalidatedTokenMapper;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -12,10 +14,14 @@ import java.util.Optional;
 public class JpaInvalidatedTokenRepositoryAdapter implements InvalidatedTokenRepositoryPort {
     private final JpaInvalidatedTokenRepository jpa;
     private final InvalidatedTokenMapper mapper;
+    private final RevokedTokenCache revokedTokenCache;
 
-    public JpaInvalidatedTokenRepositoryAdapter(JpaInvalidatedTokenRepository jpa, InvalidatedTokenMapper mapper) {
+    public JpaInvalidatedTokenRepositoryAdapter(JpaInvalidatedTokenRepository jpa,
+                                                InvalidatedTokenMapper mapper,
+                                                RevokedTokenCache revokedTokenCache) {
         this.jpa = jpa;
         this.mapper = mapper;
+        this.revokedTokenCache = revokedTokenCache;
     }
 
     @Override
@@ -23,18 +29,41 @@ public class JpaInvalidatedTokenRepositoryAdapter implements InvalidatedTokenRep
         return jpa.findByJti(jti).map(mapper::toDomain);
     }
 
+    @Override
+    public boolean isInvalidated(String jti) {
+        return revokedTokenCache.isRevoked(jti, Instant.now());
+    }
+
     @Override
     public void save(InvalidatedToken invalidatedToken) {
         jpa.save(mapper.toEntity(invalidatedToken));
+        afterCommit(() -> revokedTokenCache.add(
+                invalidatedToken.getJti(), invalidatedToken.getUserId(), invalidatedToken.getExpiryTime()));
     }
 
     @Override
     public void deleteByUserId(Long userId) {
         jpa.deleteByUserId(userId);
+        afterCommit(() -> revokedTokenCache.removeByUserId(userId));
     }
 
     @Override
     public void deleteAllByExpiryTimeBefore(Instant cutoff) {
         jpa.deleteAllByExpiryTimeBefore(cutoff);
     }
+
+    // The cache mirrors committed rows only, so a rolled back change never reaches it
+    private static void afterCommit(Runnable cacheUpdate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheUpdate.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cacheUpdate.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,84 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.auth;
+
+import be.ahm282.QuickClock.infrastructure.entity.InvalidatedTokenEntity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the invalidated_tokens table, so authenticating a request needs no query.
+ * A Bloom filter answers the common case (token not revoked) without touching the map.
+ * <p>
+ * Revocations made on this node are added as soon as their transaction commits; those made on other
+ * nodes arrive with the next {@link #reload()}. Entries are dropped once their token has expired.
+ */
+@Component
+public class RevokedTokenCache {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_BLOOM_CAPACITY = 1024;
+
+    private record Entry(Long userId, Instant expiryTime) {}
+
+    private final JpaInvalidatedTokenRepository repository;
+
+    private volatile Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter(MIN_BLOOM_CAPACITY, FALSE_POSITIVE_RATE);
+
+    public RevokedTokenCache(JpaInvalidatedTokenRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        Gauge.builder("quickclock.auth.revoked.size", this, cache -> cache.entries.size())
+                .description("Revoked tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void hydrate() {
+        reload();
+    }
+
+    public boolean isRevoked(String jti, Instant now) {
+        if (!bloomFilter.mightContain(jti)) return false;
+
+        Entry entry = entries.get(jti);
+        return entry != null && entry.expiryTime().isAfter(now);
+    }
+
+    public synchronized void add(String jti, Long userId, Instant expiryTime) {
+        entries.put(jti, new Entry(userId, expiryTime));
+        bloomFilter.add(jti);
+    }
+
+    // The Bloom filter keeps the removed ids until the next reload; the map has the final say
+    public synchronized void removeByUserId(Long userId) {
+        entries.values().removeIf(entry -> entry.userId().equals(userId));
+    }
+
+    /**
+     * Rebuilds the cache from the table. The table is the only source: local changes are only applied
+     * after commit, and one that commits while this runs waits for the lock and lands in the new map.
+     */
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        List<InvalidatedTokenEntity> rows = repository.findAllByExpiryTimeAfter(now);
+
+        Map<String, Entry> fresh = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+        for (InvalidatedTokenEntity row : rows) {
+            fresh.put(row.getJti(), new Entry(row.getUserId(), row.getExpiryTime()));
+        }
+
+        // Sized with headroom so revocations until the next reload keep the false positive rate down
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_BLOOM_CAPACITY, fresh.size() * 2), FALSE_POSITIVE_RATE);
+        fresh.keySet().forEach(rebuilt::add);
+
+        // Publish the filter first: a reader never sees an id in the map that the filter would reject
+        bloomFilter = rebuilt;
+        entries = fresh;
+    }
+}
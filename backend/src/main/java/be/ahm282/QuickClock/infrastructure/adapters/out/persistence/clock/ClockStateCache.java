@@ -0,0 +1,128 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, per-user cache of the latest clock record.
+ * Lets the IN/OUT alternation checks skip the "latest record" query on the hot clocking path.
+ * Entries are only written after the surrounding transaction commits.
+ * A database load only fills the cache if no commit for that user landed while it ran;
+ * otherwise it could cache the record that commit just superseded.
+ */
+@Component
+public class ClockStateCache {
+
+    private final Map<Long, Optional<ClockRecord>> entries;
+    // Guarded by the entries lock. A commit or eviction removes the user's token, voiding the load in flight.
+    private final Map<Long, Object> loadsInFlight = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ClockStateCache(MeterRegistry meterRegistry,
+                           @Value("${app.clocking.state-cache-max-entries:10000}") int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Long, Optional<ClockRecord>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Optional<ClockRecord>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.hits = Counter.builder("quickclock.clock.state.cache")
+                .tag("result", "hit")
+                .description("Latest clock record lookups answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("quickclock.clock.state.cache")
+                .tag("result", "miss")
+                .description("Latest clock record lookups that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.clock.state.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public Optional<ClockRecord> get(Long userId, Function<Long, Optional<ClockRecord>> loader) {
+        Optional<ClockRecord> cached = entries.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Object loadToken = new Object();
+        synchronized (entries) {
+            loadsInFlight.put(userId, loadToken);
+        }
+
+        Optional<ClockRecord> loaded;
+        try {
+            loaded = loader.apply(userId);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                loadsInFlight.remove(userId, loadToken);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            // Only cache the result if no commit, eviction or newer load for this user replaced our token
+            if (loadsInFlight.remove(userId, loadToken)) {
+                entries.putIfAbsent(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Records a freshly saved clock record once its transaction has committed.
+     * Rolled back saves evict the user so the next lookup reloads from the database.
+     */
+    public void recordAfterCommit(ClockRecord saved) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(saved);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    record(saved);
+                } else {
+                    evict(saved.getUserId());
+                }
+            }
+        });
+    }
+
+    public void evict(Long userId) {
+        synchronized (entries) {
+            loadsInFlight.remove(userId);
+            entries.remove(userId);
+        }
+    }
+
+    private void record(ClockRecord saved) {
+        synchronized (entries) {
+            loadsInFlight.remove(saved.getUserId());
+            // A back-dated (admin) record only replaces the cached one when it is actually the latest.
+            // Users without an entry are left alone: we don't know their latest record yet.
+            entries.computeIfPresent(saved.getUserId(), (userId, current) ->
+                    current.isEmpty() || !saved.getRecordedAt().isBefore(current.get().getRecordedAt())
+                            ? Optional.of(saved)
+                            : current);
+        }
+    }
+}
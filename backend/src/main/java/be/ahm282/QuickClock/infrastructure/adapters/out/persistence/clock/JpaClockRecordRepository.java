@@ -1,6 +1,9 @@
 package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
 
+import be.ahm282.QuickClock.domain.model.AccountType;
+import be.ahm282.QuickClock.domain.model.ClockRecord;
 import be.ahm282.QuickClock.infrastructure.entity.ClockRecordEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,8 +16,31 @@ import java.util.Optional;
 @Component
 public interface JpaClockRecordRepository extends JpaRepository<ClockRecordEntity, Long> {
         List<ClockRecordEntity> findAllByUserIdOrderByRecordedAtDesc(Long userId);
+        List<ClockRecordEntity> findAllByUserIdAndRecordedAtGreaterThanEqualOrderByRecordedAtAsc(Long userId, Instant from);
         Optional<ClockRecordEntity> findTopByUserIdOrderByRecordedAtDesc(Long userId);
 
+        @Query("SELECT c FROM ClockRecordEntity c WHERE c.userId = :userId ORDER BY c.recordedAt DESC, c.id DESC")
+        List<ClockRecordEntity> findFirstPageByUserId(@Param("userId") Long userId, Limit limit);
+
+        // Keyset continuation: strictly older than the cursor in (recordedAt, id) order
+        @Query("SELECT c FROM ClockRecordEntity c WHERE c.userId = :userId " +
+                "AND (c.recordedAt < :recordedAt OR (c.recordedAt = :recordedAt AND c.id < :id)) " +
+                "ORDER BY c.recordedAt DESC, c.id DESC")
+        List<ClockRecordEntity> findPageByUserIdBefore(@Param("userId") Long userId,
+                                                       @Param("recordedAt") Instant recordedAt,
+                                                       @Param("id") Long id,
+                                                       Limit limit);
+
         @Query("SELECT c FROM ClockRecordEntity c WHERE c.userId = :userId AND c.recordedAt >= :startOfDay AND c.recordedAt < :endOfDay ORDER BY c.recordedAt DESC")
         List<ClockRecordEntity> findByUserIdAndRecordedAtBetween(@Param("userId") Long userId, @Param("startOfDay") Instant startOfDay, @Param("endOfDay") Instant endOfDay);
+
+        // Read-only report rows: projected straight into the domain model, nothing enters the persistence context
+        @Query("SELECT new be.ahm282.QuickClock.domain.model.ClockRecord(c.id, c.userId, c.type, c.recordedAt, c.reason) " +
+                "FROM ClockRecordEntity c " +
+                "WHERE c.recordedAt >= :from AND c.recordedAt < :to " +
+                "AND c.userId IN (SELECT u.id FROM UserEntity u WHERE u.active = true AND u.accountType = :accountType) " +
+                "ORDER BY c.userId, c.recordedAt")
+        List<ClockRecord> findAllByAccountTypeBetween(@Param("accountType") AccountType accountType,
+                                                      @Param("from") Instant from,
+                                                      @Param("to") Instant to);
 }
@@ -1,9 +1,13 @@
 package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
 
 import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.domain.model.AccountType;
+import be.ahm282.QuickClock.domain.model.ClockHistoryCursor;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
 import be.ahm282.QuickClock.infrastructure.mapper.ClockRecordEntityMapper;
 import be.ahm282.QuickClock.infrastructure.entity.ClockRecordEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -14,17 +18,43 @@ import java.util.stream.Collectors;
 @Component
 public class JpaClockRecordRepositoryAdapter implements ClockRecordRepositoryPort {
     private final JpaClockRecordRepository repository;
+    private final JpaUserClockStateRepository clockStateRepository;
     private final ClockRecordEntityMapper mapper;
+    private final ClockStateCache clockStateCache;
 
-    public JpaClockRecordRepositoryAdapter(JpaClockRecordRepository repository, ClockRecordEntityMapper mapper) {
+    public JpaClockRecordRepositoryAdapter(JpaClockRecordRepository repository,
+                                           JpaUserClockStateRepository clockStateRepository,
+                                           ClockRecordEntityMapper mapper,
+                                           ClockStateCache clockStateCache) {
         this.repository = repository;
+        this.clockStateRepository = clockStateRepository;
         this.mapper = mapper;
+        this.clockStateCache = clockStateCache;
     }
 
     @Override
     public ClockRecord save(ClockRecord clockRecord) {
         ClockRecordEntity saved = repository.save(mapper.toEntity(clockRecord));
-        return mapper.toDomain(saved);
+        syncClockState(saved);
+
+        ClockRecord savedRecord = mapper.toDomain(saved);
+        clockStateCache.recordAfterCommit(savedRecord);
+        return savedRecord;
+    }
+
+    @Override
+    public Optional<ClockRecord> saveTransition(ClockRecord clockRecord) {
+        // The state row is advanced first, so a rejected double tap never inserts a record
+        int updated = clockStateRepository.advanceIfTypeDiffers(
+                clockRecord.getUserId(), clockRecord.getType(), clockRecord.getRecordedAt());
+
+        if (updated == 0 && !initializeClockState(clockRecord)) {
+            return Optional.empty();
+        }
+
+        ClockRecord savedRecord = mapper.toDomain(repository.save(mapper.toEntity(clockRecord)));
+        clockStateCache.recordAfterCommit(savedRecord);
+        return Optional.of(savedRecord);
     }
 
     @Override
@@ -35,10 +65,46 @@ public class JpaClockRecordRepositoryAdapter implements ClockRecordRepositoryPor
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ClockRecord> findActiveEmployeeRecordsBetween(Instant from, Instant to) {
+        return repository.findAllByAccountTypeBetween(AccountType.EMPLOYEE, from, to);
+    }
+
+    @Override
+    public List<ClockRecord> findByUserIdSince(Long userId, Instant from) {
+        return repository.findAllByUserIdAndRecordedAtGreaterThanEqualOrderByRecordedAtAsc(userId, from)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<ClockRecord> findPageByUserId(Long userId, ClockHistoryCursor after, int limit) {
+        List<ClockRecordEntity> page = after == null
+                ? repository.findFirstPageByUserId(userId, Limit.of(limit))
+                : repository.findPageByUserIdBefore(userId, after.recordedAt(), after.id(), Limit.of(limit));
+
+        return page.stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @Override
     public Optional<ClockRecord> findLatestByUserId(Long userId) {
-        return repository.findTopByUserIdOrderByRecordedAtDesc(userId)
-                .map(mapper::toDomain);
+        return clockStateCache.get(userId, id ->
+                repository.findTopByUserIdOrderByRecordedAtDesc(id).map(mapper::toDomain));
+    }
+
+    @Override
+    public Optional<ClockStatus> findStatusByUserId(Long userId) {
+        Optional<ClockStatus> status = clockStateRepository.findStatusByUserId(userId);
+        if (status.isPresent()) {
+            return status;
+        }
+
+        // Users whose history predates user_clock_state: fall back to the (cached) latest record
+        return findLatestByUserId(userId)
+                .map(latest -> new ClockStatus(latest.getType(), latest.getRecordedAt()));
     }
 
     @Override
@@ -48,4 +114,35 @@ public class JpaClockRecordRepositoryAdapter implements ClockRecordRepositoryPor
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
+
+    // ---------- Clock state maintenance ----------
+
+    /**
+     * Handles a failed compare-and-set: either the state row is missing (first clock ever, or a user
+     * whose history predates the state table) or the user's last record already has this type.
+     * A rejection after the row was created here relies on the caller rolling back the transaction.
+     *
+     * @return true if the state row was created for the new record, false if the transition is rejected
+     */
+    private boolean initializeClockState(ClockRecord clockRecord) {
+        int inserted = clockStateRepository.insertIfAbsent(
+                clockRecord.getUserId(), clockRecord.getType().name(), clockRecord.getRecordedAt());
+        if (inserted == 0) {
+            return false;
+        }
+
+        Optional<ClockRecordEntity> previous = repository.findTopByUserIdOrderByRecordedAtDesc(clockRecord.getUserId());
+        return previous.isEmpty() || previous.get().getType() != clockRecord.getType();
+    }
+
+    private void syncClockState(ClockRecordEntity saved) {
+        int updated = clockStateRepository.advanceIfNewer(saved.getUserId(), saved.getType(), saved.getRecordedAt());
+
+        if (updated == 0) {
+            // No-op when the row exists and already points at a newer record
+            repository.findTopByUserIdOrderByRecordedAtDesc(saved.getUserId())
+                    .ifPresent(latest -> clockStateRepository.insertIfAbsent(
+                            latest.getUserId(), latest.getType().name(), latest.getRecordedAt()));
+        }
+    }
 }
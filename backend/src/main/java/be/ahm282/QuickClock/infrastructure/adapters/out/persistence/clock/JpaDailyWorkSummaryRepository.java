@@ -0,0 +1,42 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.infrastructure.entity.DailyWorkSummaryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JpaDailyWorkSummaryRepository extends JpaRepository<DailyWorkSummaryEntity, Long> {
+    List<DailyWorkSummaryEntity> findAllByUserIdAndWorkDateBetweenOrderByWorkDateAsc(Long userId, LocalDate from, LocalDate to);
+
+    Optional<DailyWorkSummaryEntity> findTopByUserIdOrderByWorkDateDesc(Long userId);
+
+    @Modifying
+    @Query("UPDATE DailyWorkSummaryEntity d SET d.openSession = true WHERE d.userId = :userId AND d.workDate = :workDate")
+    int markOpenSession(@Param("userId") Long userId, @Param("workDate") LocalDate workDate);
+
+    @Modifying
+    @Query("UPDATE DailyWorkSummaryEntity d SET d.secondsWorked = :secondsWorked, d.openSession = :openSession " +
+            "WHERE d.userId = :userId AND d.workDate = :workDate")
+    int updateSummary(@Param("userId") Long userId,
+                      @Param("workDate") LocalDate workDate,
+                      @Param("secondsWorked") long secondsWorked,
+                      @Param("openSession") boolean openSession);
+
+    // No conflict target: H2's PostgreSQL mode only accepts the bare form, and the generated id cannot clash,
+    // so (user_id, work_date) is the only constraint it can hit
+    @Modifying
+    @Query(value = "INSERT INTO daily_work_summary (user_id, work_date, seconds_worked, open_session) " +
+            "VALUES (:userId, :workDate, :secondsWorked, :openSession) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("workDate") LocalDate workDate,
+                       @Param("secondsWorked") long secondsWorked,
+                       @Param("openSession") boolean openSession);
+}
@@ -0,0 +1,69 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.application.ports.out.DailyWorkSummaryRepositoryPort;
+import be.ahm282.QuickClock.domain.model.DailyWorkSummary;
+import be.ahm282.QuickClock.infrastructure.entity.DailyWorkSummaryEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class JpaDailyWorkSummaryRepositoryAdapter implements DailyWorkSummaryRepositoryPort {
+    private final JpaDailyWorkSummaryRepository repository;
+
+    public JpaDailyWorkSummaryRepositoryAdapter(JpaDailyWorkSummaryRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public List<DailyWorkSummary> findByUserIdAndWorkDateBetween(Long userId, LocalDate from, LocalDate to) {
+        return repository.findAllByUserIdAndWorkDateBetweenOrderByWorkDateAsc(userId, from, to)
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public Optional<LocalDate> findLatestWorkDate(Long userId) {
+        return repository.findTopByUserIdOrderByWorkDateDesc(userId).map(DailyWorkSummaryEntity::getWorkDate);
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(List<DailyWorkSummary> summaries) {
+        // Update first, insert only when the day has no row yet. Two refreshes racing on a new day cannot
+        // both insert: the loser's insert does nothing, and it writes its figures with the update instead.
+        for (DailyWorkSummary summary : summaries) {
+            if (update(summary) == 0 && insertIfAbsent(summary) == 0) {
+                update(summary);
+            }
+        }
+    }
+
+    private int update(DailyWorkSummary summary) {
+        return repository.updateSummary(summary.userId(), summary.workDate(), summary.secondsWorked(), summary.openSession());
+    }
+
+    private int insertIfAbsent(DailyWorkSummary summary) {
+        return repository.insertIfAbsent(summary.userId(), summary.workDate(), summary.secondsWorked(), summary.openSession());
+    }
+
+    @Override
+    @Transactional
+    public void markOpenSession(Long userId, LocalDate workDate) {
+        // A missing row is recomputed on read anyway, so there is nothing to insert here
+        repository.markOpenSession(userId, workDate);
+    }
+
+    private DailyWorkSummary toDomain(DailyWorkSummaryEntity entity) {
+        return new DailyWorkSummary(
+                entity.getUserId(),
+                entity.getWorkDate(),
+                entity.getSecondsWorked(),
+                entity.isOpenSession()
+        );
+    }
+}
@@ -0,0 +1,47 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
+import be.ahm282.QuickClock.infrastructure.entity.UserClockStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface JpaUserClockStateRepository extends JpaRepository<UserClockStateEntity, Long> {
+
+    @Query("SELECT new be.ahm282.QuickClock.domain.model.ClockStatus(s.lastType, s.lastRecordedAt) " +
+            "FROM UserClockStateEntity s WHERE s.userId = :userId")
+    Optional<ClockStatus> findStatusByUserId(@Param("userId") Long userId);
+
+    // Compare-and-set: only succeeds when the new record actually alternates the user's state
+    @Modifying
+    @Query("UPDATE UserClockStateEntity s SET s.lastType = :newType, s.lastRecordedAt = :recordedAt " +
+            "WHERE s.userId = :userId AND s.lastType <> :newType")
+    int advanceIfTypeDiffers(@Param("userId") Long userId,
+                             @Param("newType") ClockRecordType newType,
+                             @Param("recordedAt") Instant recordedAt);
+
+    // Used for records that are not subject to alternation (seeding, back-dated admin corrections)
+    @Modifying
+    @Query("UPDATE UserClockStateEntity s SET s.lastType = :newType, s.lastRecordedAt = :recordedAt " +
+            "WHERE s.userId = :userId AND s.lastRecordedAt <= :recordedAt")
+    int advanceIfNewer(@Param("userId") Long userId,
+                       @Param("newType") ClockRecordType newType,
+                       @Param("recordedAt") Instant recordedAt);
+
+    // Creates the user's first state row. Of two concurrent first clocks, the second one waits for the
+    // first to commit and then inserts nothing, instead of failing on the primary key.
+    // No conflict target: H2's PostgreSQL mode only accepts the bare form, and the key is the only constraint.
+    @Modifying
+    @Query(value = "INSERT INTO user_clock_state (user_id, last_type, last_recorded_at) " +
+            "VALUES (:userId, :type, :recordedAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("type") String type,
+                       @Param("recordedAt") Instant recordedAt);
+}
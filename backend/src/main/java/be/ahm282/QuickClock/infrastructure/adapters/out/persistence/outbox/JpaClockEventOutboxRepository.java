@@ -0,0 +1,50 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.outbox;
+
+import be.ahm282.QuickClock.infrastructure.entity.ClockEventOutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JpaClockEventOutboxRepository extends JpaRepository<ClockEventOutboxEntity, Long> {
+
+    // Lock timeout -2 makes Hibernate emit SKIP LOCKED, so concurrent relays never wait on each other's rows
+    String SKIP_LOCKED = "-2";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("""
+            SELECT e FROM ClockEventOutboxEntity e
+            WHERE e.processedAt IS NULL
+            ORDER BY e.id ASC
+            """)
+    List<ClockEventOutboxEntity> findPendingForUpdate(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT e FROM ClockEventOutboxEntity e WHERE e.id = :id AND e.processedAt IS NULL")
+    Optional<ClockEventOutboxEntity> findPendingByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM ClockEventOutboxEntity e WHERE e.processedAt IS NULL ORDER BY e.id ASC")
+    List<Long> findPendingIds(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ClockEventOutboxEntity e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Query("DELETE FROM ClockEventOutboxEntity e WHERE e.processedAt < :cutoff")
+    int deleteAllByProcessedAtBefore(@Param("cutoff") Instant cutoff);
+}
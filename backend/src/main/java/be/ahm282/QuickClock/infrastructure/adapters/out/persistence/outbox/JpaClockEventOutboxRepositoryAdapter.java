@@ -0,0 +1,98 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.outbox;
+
+import be.ahm282.QuickClock.application.ports.out.ClockEventOutboxPort;
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+import be.ahm282.QuickClock.infrastructure.entity.ClockEventOutboxEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class JpaClockEventOutboxRepositoryAdapter implements ClockEventOutboxPort {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JpaClockEventOutboxRepository repository;
+
+    public JpaClockEventOutboxRepositoryAdapter(JpaClockEventOutboxRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ClockEvent event) {
+        repository.save(new ClockEventOutboxEntity(
+                event.clockRecordId(),
+                event.userId(),
+                event.type(),
+                event.recordedAt(),
+                event.manual(),
+                event.createdAt()
+        ));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ClockEvent> claimPending(int limit) {
+        return repository.findPendingForUpdate(PageRequest.of(0, limit))
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<ClockEvent> claimPending(Long id) {
+        return repository.findPendingByIdForUpdate(id).map(this::toDomain);
+    }
+
+    @Override
+    public List<Long> findPendingIds(int limit) {
+        return repository.findPendingIds(PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public void markProcessed(Collection<Long> ids, Instant processedAt) {
+        if (ids.isEmpty()) return;
+        repository.markProcessed(ids, processedAt);
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(Long id, String error, int maxAttempts) {
+        repository.findById(id).ifPresent(entity -> {
+            entity.setAttempts(entity.getAttempts() + 1);
+            entity.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH)
+                    : error);
+            if (entity.getAttempts() >= maxAttempts) {
+                // Parked: kept for inspection, skipped by the relay, removed by the regular cleanup
+                entity.setProcessedAt(Instant.now());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int deleteProcessedBefore(Instant cutoff) {
+        return repository.deleteAllByProcessedAtBefore(cutoff);
+    }
+
+    private ClockEvent toDomain(ClockEventOutboxEntity entity) {
+        return new ClockEvent(
+                entity.getId(),
+                entity.getClockRecordId(),
+                entity.getUserId(),
+                entity.getType(),
+                entity.getRecordedAt(),
+                entity.isManual(),
+                entity.getCreatedAt()
+        );
+    }
+}
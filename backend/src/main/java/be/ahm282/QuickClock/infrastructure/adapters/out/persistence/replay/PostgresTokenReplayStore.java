@@ -0,0 +1,82 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.replay;
+
+import be.ahm282.QuickClock.application.ports.out.TokenReplayStorePort;
+import be.ahm282.QuickClock.infrastructure.security.service.TokenReplayCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Replay store shared by every backend instance, so a QR token is single-use across the cluster
+ * and kiosks do not need sticky routing.
+ * <p>
+ * Used ids go into an UNLOGGED table (no WAL: losing it in a crash only forgets ids that expire within seconds).
+ * A local {@link TokenReplayCache} sits in front, so a replay seen by this node costs no round trip
+ * and a first use costs exactly one INSERT ... ON CONFLICT DO NOTHING.
+ * The insert joins the surrounding transaction, and the id only enters the local cache once that commits:
+ * a token whose clock action rolls back is released again, on this node as on every other.
+ */
+@Component
+@ConditionalOnProperty(name = "app.clocking.replay-store", havingValue = "postgres")
+public class PostgresTokenReplayStore implements TokenReplayStorePort {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenReplayCache localCache;
+
+    public PostgresTokenReplayStore(JdbcTemplate jdbcTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.clocking.replay-cache-max-entries:100000}") int maxLocalEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.localCache = new TokenReplayCache(meterRegistry, maxLocalEntries);
+    }
+
+    // Not a JPA entity: Hibernate can neither create UNLOGGED tables nor should it validate this one
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE IF NOT EXISTS qr_used_token (" +
+                "token_id VARCHAR(32) PRIMARY KEY, " +
+                "forget_at BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_qr_used_token_forget_at ON qr_used_token (forget_at)");
+    }
+
+    @Override
+    public boolean markUsed(String tokenId, long forgetAtSecond, long nowSecond) {
+        if (localCache.isUsed(tokenId, nowSecond)) {
+            return false;
+        }
+
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO qr_used_token (token_id, forget_at) VALUES (?, ?) ON CONFLICT (token_id) DO NOTHING",
+                tokenId, forgetAtSecond);
+        if (inserted == 0) {
+            return false;
+        }
+
+        rememberAfterCommit(tokenId, forgetAtSecond, nowSecond);
+        return true;
+    }
+
+    private void rememberAfterCommit(String tokenId, long forgetAtSecond, long nowSecond) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            localCache.markUsed(tokenId, forgetAtSecond, nowSecond);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The database row is authoritative; a full local cache only costs this node a round trip
+                localCache.markUsed(tokenId, forgetAtSecond, nowSecond);
+            }
+        });
+    }
+
+    public int pruneExpired(long nowSecond) {
+        return jdbcTemplate.update("DELETE FROM qr_used_token WHERE forget_at <= ?", nowSecond);
+    }
+}
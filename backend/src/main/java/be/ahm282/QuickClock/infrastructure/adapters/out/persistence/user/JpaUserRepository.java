@@ -1,13 +1,18 @@
 package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.user;
 
 import be.ahm282.QuickClock.domain.model.AccountType;
+import be.ahm282.QuickClock.domain.model.EmployeeBoardEntry;
+import be.ahm282.QuickClock.domain.model.EmployeeBoardProfile;
 import be.ahm282.QuickClock.infrastructure.entity.UserEntity;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +29,45 @@ public interface JpaUserRepository extends JpaRepository<UserEntity, Long> {
     @EntityGraph(attributePaths = "roles")
     Optional<UserEntity> findByPublicId(UUID publicId);
 
+    @EntityGraph(attributePaths = "roles")
+    List<UserEntity> findAllByPublicIdIn(Collection<UUID> publicIds);
+
+    @Query("SELECT u.secret FROM UserEntity u WHERE u.id = :id")
+    Optional<String> findSecretById(@Param("id") Long id);
+
     @Query("SELECT DISTINCT u FROM UserEntity u LEFT JOIN FETCH u.roles WHERE u.active = true AND u.accountType = :accountType")
     List<UserEntity> findAllByActiveTrueAndAccountType(@Param("accountType") AccountType accountType);
-}
\ No newline at end of file
+
+    // Latest record per user, resolved through idx_clock_user_ts in a single round trip
+    @Query("SELECT new be.ahm282.QuickClock.domain.model.EmployeeBoardEntry(" +
+            "u.publicId, u.displayName, u.displayNameArabic, c.type, c.recordedAt) " +
+            "FROM UserEntity u " +
+            "LEFT JOIN ClockRecordEntity c ON c.userId = u.id " +
+            "AND c.recordedAt = (SELECT MAX(c2.recordedAt) FROM ClockRecordEntity c2 WHERE c2.userId = u.id) " +
+            "WHERE u.active = true AND u.accountType = :accountType")
+    List<EmployeeBoardEntry> findBoardEntriesByAccountType(@Param("accountType") AccountType accountType);
+
+    @Query("SELECT new be.ahm282.QuickClock.domain.model.EmployeeBoardProfile(" +
+            "u.publicId, u.displayName, u.displayNameArabic) " +
+            "FROM UserEntity u WHERE u.id = :id AND u.active = true AND u.accountType = :accountType")
+    Optional<EmployeeBoardProfile> findBoardProfileById(@Param("id") Long id,
+                                                        @Param("accountType") AccountType accountType);
+
+    // The CASE sees the counter's value from before this statement, hence the + 1
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.failedLoginAttempts = u.failedLoginAttempts + 1, " +
+            "u.lockedUntil = CASE WHEN u.failedLoginAttempts + 1 >= :maxAttempts THEN :lockedUntil ELSE u.lockedUntil END " +
+            "WHERE u.id = :id")
+    int incrementFailedLoginAttempts(@Param("id") Long id,
+                                     @Param("maxAttempts") int maxAttempts,
+                                     @Param("lockedUntil") Instant lockedUntil);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.failedLoginAttempts = 0, u.lockedUntil = null, u.lastLogin = :loginAt " +
+            "WHERE u.id = :id")
+    int resetFailedLoginAttempts(@Param("id") Long id, @Param("loginAt") Instant loginAt);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.passwordHash = :passwordHash WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("passwordHash") String passwordHash);
+}
@@ -3,13 +3,19 @@ package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.user;
 import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
 import be.ahm282.QuickClock.domain.exception.UsernameAlreadyExistsException;
 import be.ahm282.QuickClock.domain.model.AccountType;
+import be.ahm282.QuickClock.domain.model.EmployeeBoardEntry;
+import be.ahm282.QuickClock.domain.model.EmployeeBoardProfile;
 import be.ahm282.QuickClock.domain.model.User;
 import be.ahm282.QuickClock.infrastructure.mapper.UserMapper;
 import be.ahm282.QuickClock.infrastructure.entity.UserEntity;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,10 +23,12 @@ import java.util.UUID;
 public class JpaUserRepositoryAdapter implements UserRepositoryPort {
     private final JpaUserRepository repository;
     private final UserMapper mapper;
+    private final UserSecretCache secretCache;
 
-    public JpaUserRepositoryAdapter(JpaUserRepository userRepository, UserMapper mapper) {
+    public JpaUserRepositoryAdapter(JpaUserRepository userRepository, UserMapper mapper, UserSecretCache secretCache) {
         repository = userRepository;
         this.mapper = mapper;
+        this.secretCache = secretCache;
     }
 
     @Override
@@ -38,6 +46,19 @@ public class JpaUserRepositoryAdapter implements UserRepositoryPort {
         return repository.findByPublicId(publicId).map(mapper::toDomain);
     }
 
+    @Override
+    public List<User> findAllByPublicIdIn(Collection<UUID> publicIds) {
+        return repository.findAllByPublicIdIn(publicIds)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public Optional<String> findSecretById(Long id) {
+        return secretCache.get(id, repository::findSecretById);
+    }
+
     @Override
     public List<User> findAllActiveEmployees() {
         return repository.findAllByActiveTrueAndAccountType(AccountType.EMPLOYEE)
@@ -46,12 +67,28 @@ public class JpaUserRepositoryAdapter implements UserRepositoryPort {
                 .toList();
     }
 
+    @Override
+    public List<EmployeeBoardEntry> findActiveEmployeesWithLatestClock() {
+        // Two records sharing the exact latest timestamp would yield two rows; keep the first one
+        Map<UUID, EmployeeBoardEntry> board = new LinkedHashMap<>();
+        for (EmployeeBoardEntry entry : repository.findBoardEntriesByAccountType(AccountType.EMPLOYEE)) {
+            board.putIfAbsent(entry.publicId(), entry);
+        }
+        return List.copyOf(board.values());
+    }
+
+    @Override
+    public Optional<EmployeeBoardProfile> findActiveEmployeeBoardProfile(Long id) {
+        return repository.findBoardProfileById(id, AccountType.EMPLOYEE);
+    }
+
     @Override
     public User save(User user) {
         UserEntity userEntity = mapper.toEntity(user);
 
         try {
             UserEntity saved = repository.save(userEntity);
+            secretCache.evictOnSave(saved.getId());
             return mapper.toDomain(saved);
         } catch (DataIntegrityViolationException ex) {
             if (isUsernameUniqueConstraintViolation(ex)) {
@@ -61,6 +98,23 @@ public class JpaUserRepositoryAdapter implements UserRepositoryPort {
         }
     }
 
+    // The secret is untouched by these updates, so the secret cache stays valid
+
+    @Override
+    public void recordFailedLogin(Long id, int maxAttempts, Instant lockedUntil) {
+        repository.incrementFailedLoginAttempts(id, maxAttempts, lockedUntil);
+    }
+
+    @Override
+    public void recordSuccessfulLogin(Long id, Instant loginAt) {
+        repository.resetFailedLoginAttempts(id, loginAt);
+    }
+
+    @Override
+    public void updatePasswordHash(Long id, String passwordHash) {
+        repository.updatePasswordHash(id, passwordHash);
+    }
+
     private boolean isUsernameUniqueConstraintViolation(DataIntegrityViolationException ex) {
         Throwable root = ex.getMostSpecificCause();
         String msg = root.getMessage();
@@ -0,0 +1,77 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, per-user cache of QR signing secrets.
+ * Lets QR generation and validation skip loading the user. Saving a user evicts its entry,
+ * both immediately and once the transaction completes, so a load racing the save cannot keep an old secret.
+ */
+@Component
+public class UserSecretCache {
+
+    private final Map<Long, String> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserSecretCache(MeterRegistry meterRegistry,
+                           @Value("${app.clocking.secret-cache-max-entries:10000}") int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Long, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.hits = Counter.builder("quickclock.user.secret.cache")
+                .tag("result", "hit")
+                .description("QR signing secret lookups answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("quickclock.user.secret.cache")
+                .tag("result", "miss")
+                .description("QR signing secret lookups that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.user.secret.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public Optional<String> get(Long userId, Function<Long, Optional<String>> loader) {
+        String cached = entries.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        // Unknown ids are not cached: they would only push real users out
+        Optional<String> loaded = loader.apply(userId);
+        loaded.ifPresent(secret -> entries.putIfAbsent(userId, secret));
+        return loaded;
+    }
+
+    public void evictOnSave(Long userId) {
+        if (userId == null) return;
+
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+}
@@ -4,11 +4,15 @@ import be.ahm282.QuickClock.application.ports.out.QRTokenPort;
 import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
 import be.ahm282.QuickClock.domain.exception.BusinessRuleException;
 import be.ahm282.QuickClock.domain.exception.ValidationException;
+import be.ahm282.QuickClock.domain.model.IssuedQrToken;
 import be.ahm282.QuickClock.domain.model.QrTokenValidation;
 import be.ahm282.QuickClock.domain.model.TokenValidationResult;
+import be.ahm282.QuickClock.domain.model.User;
 import be.ahm282.QuickClock.infrastructure.security.service.SecureTokenService;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class QRTokenAdapter implements QRTokenPort {
 
@@ -21,12 +25,18 @@ public class QRTokenAdapter implements QRTokenPort {
     }
 
     @Override
-    public String generateToken(Long userId, String purpose) {
-        String secret = userRepositoryPort.findById(userId)
-                .orElseThrow(() -> new BusinessRuleException("User not found"))
-                .getSecret();
+    public IssuedQrToken generateToken(Long userId, String purpose) {
+        String secret = userRepositoryPort.findSecretById(userId)
+                .orElseThrow(() -> new BusinessRuleException("User not found"));
+
+        return secureTokenService.issueToken(userId, secret, purpose, null);
+    }
 
-        return secureTokenService.generateToken(userId, secret, purpose, null);
+    @Override
+    public List<IssuedQrToken> generateTokens(List<User> users, String purpose) {
+        return users.stream()
+                .map(user -> secureTokenService.issueToken(user.getId(), user.getSecret(), purpose, null))
+                .toList();
     }
 
     @Override
@@ -49,29 +59,15 @@ public class QRTokenAdapter implements QRTokenPort {
 
     @Override
     public String extractTokenId(String token) {
-        String decoded = secureTokenService.decodeToken(token);
-        String[] parts = decoded.split("\\|");
-        // version | userId | purpose | kioskId | iat | exp | jti | sig
-        if (parts.length < 7) {
-            throw new IllegalArgumentException("Token form illegal - insufficient parts: " + decoded);
-        }
-        return parts[6]; // tokenId
+        return secureTokenService.peekTokenId(token);
     }
 
     private String findUserSecretByToken(String token) {
         try {
-            String decoded = secureTokenService.decodeToken(token);
-            String[] parts = decoded.split("\\|", 3); // version, userId, ...
-
-            if (parts.length < 2) {
-                throw new IllegalArgumentException();
-            }
-
-            Long userId = Long.parseLong(parts[1]);
+            Long userId = secureTokenService.peekUserId(token);
 
-            return userRepositoryPort.findById(userId)
-                    .orElseThrow(() -> new ValidationException("Token is expired or invalid"))
-                    .getSecret();
+            return userRepositoryPort.findSecretById(userId)
+                    .orElseThrow(() -> new ValidationException("Token is expired or invalid"));
         } catch (Exception e) {
             throw new ValidationException("Token is expired or invalid");
         }
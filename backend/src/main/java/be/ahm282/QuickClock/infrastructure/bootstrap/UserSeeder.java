@@ -6,7 +6,7 @@ import be.ahm282.QuickClock.domain.model.User;
 import jakarta.annotation.PostConstruct;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
@@ -19,9 +19,9 @@ import java.util.Set;
 public class UserSeeder {
     private final UserRepositoryPort userRepositoryPort;
     private final SecureRandom secureRandom;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
 
-    public UserSeeder(UserRepositoryPort userRepositoryPort, BCryptPasswordEncoder passwordEncoder) {
+    public UserSeeder(UserRepositoryPort userRepositoryPort, PasswordEncoder passwordEncoder) {
         this.userRepositoryPort = userRepositoryPort;
         this.secureRandom = new SecureRandom();
         this.passwordEncoder = passwordEncoder;
@@ -35,6 +35,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             case BusinessRuleException e -> HttpStatus.CONFLICT;
             case UsernameAlreadyExistsException e -> HttpStatus.CONFLICT;
             case RateLimitException e -> HttpStatus.TOO_MANY_REQUESTS;
+            case ServiceBusyException e -> HttpStatus.SERVICE_UNAVAILABLE;
             case ValidationException e -> HttpStatus.BAD_REQUEST;
             default -> HttpStatus.BAD_REQUEST; // Default fallback for generic DomainException
         };
@@ -48,6 +49,11 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         }
 
         enrichProblemDetail(problem, ex);
+
+        // Overload is short-lived; tell clients when retrying makes sense
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "2").body(problem);
+        }
         return ResponseEntity.status(status).body(problem);
     }
 
@@ -0,0 +1,89 @@
+package be.ahm282.QuickClock.infrastructure.entity;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(
+        name = "clock_event_outbox",
+        indexes = {
+                @Index(name = "idx_clock_event_outbox_pending", columnList = "processed_at, id")
+        }
+)
+public class ClockEventOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "clock_record_id", nullable = false)
+    private Long clockRecordId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "type", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private ClockRecordType type;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    @Column(name = "manual", nullable = false)
+    private boolean manual;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public ClockEventOutboxEntity() {}
+
+    public ClockEventOutboxEntity(Long clockRecordId,
+                                  Long userId,
+                                  ClockRecordType type,
+                                  Instant recordedAt,
+                                  boolean manual,
+                                  Instant createdAt) {
+        this.clockRecordId = clockRecordId;
+        this.userId = userId;
+        this.type = type;
+        this.recordedAt = recordedAt;
+        this.manual = manual;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getClockRecordId() { return clockRecordId; }
+
+    public Long getUserId() { return userId; }
+
+    public ClockRecordType getType() { return type; }
+
+    public Instant getRecordedAt() { return recordedAt; }
+
+    public boolean isManual() { return manual; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getProcessedAt() { return processedAt; }
+
+    public void setProcessedAt(Instant processedAt) { this.processedAt = processedAt; }
+
+    public int getAttempts() { return attempts; }
+
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
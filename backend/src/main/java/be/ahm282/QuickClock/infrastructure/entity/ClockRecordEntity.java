@@ -10,7 +10,8 @@ import java.time.Instant;
         name = "clock_records",
         indexes = {
             @Index(name = "idx_clock_user", columnList = "user_id"),
-            @Index(name = "idx_clock_user_ts", columnList = "user_id, recorded_at")
+            @Index(name = "idx_clock_user_ts", columnList = "user_id, recorded_at"),
+            @Index(name = "idx_clock_ts", columnList = "recorded_at")
         }
 )
 public class ClockRecordEntity extends AuditableEntity {
@@ -0,0 +1,51 @@
+package be.ahm282.QuickClock.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "daily_work_summary",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_daily_work_summary_user_date", columnNames = {"user_id", "work_date"})
+        }
+)
+public class DailyWorkSummaryEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "work_date", nullable = false)
+    private LocalDate workDate;
+
+    @Column(name = "seconds_worked", nullable = false)
+    private long secondsWorked;
+
+    @Column(name = "open_session", nullable = false)
+    private boolean openSession;
+
+    public DailyWorkSummaryEntity() {}
+
+    public DailyWorkSummaryEntity(Long userId, LocalDate workDate) {
+        this.userId = userId;
+        this.workDate = workDate;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getUserId() { return userId; }
+
+    public LocalDate getWorkDate() { return workDate; }
+
+    public long getSecondsWorked() { return secondsWorked; }
+
+    public void setSecondsWorked(long secondsWorked) { this.secondsWorked = secondsWorked; }
+
+    public boolean isOpenSession() { return openSession; }
+
+    public void setOpenSession(boolean openSession) { this.openSession = openSession; }
+}
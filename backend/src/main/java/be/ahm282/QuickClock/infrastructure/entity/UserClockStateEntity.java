@@ -0,0 +1,39 @@
+package be.ahm282.QuickClock.infrastructure.entity;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Denormalized "current clock state" of a user: one row per user, mirroring their latest clock record.
+ * Updated in the same transaction as every clock_records insert, before the record itself is written.
+ */
+@Entity
+@Table(name = "user_clock_state")
+public class UserClockStateEntity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_type", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private ClockRecordType lastType;
+
+    @Column(name = "last_recorded_at", nullable = false)
+    private Instant lastRecordedAt;
+
+    public UserClockStateEntity() {}
+
+    public UserClockStateEntity(Long userId, ClockRecordType lastType, Instant lastRecordedAt) {
+        this.userId = userId;
+        this.lastType = lastType;
+        this.lastRecordedAt = lastRecordedAt;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public ClockRecordType getLastType() { return lastType; }
+
+    public Instant getLastRecordedAt() { return lastRecordedAt; }
+}
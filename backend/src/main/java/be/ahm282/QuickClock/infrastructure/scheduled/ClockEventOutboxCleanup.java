@@ -0,0 +1,25 @@
+package be.ahm282.QuickClock.infrastructure.scheduled;
+
+import be.ahm282.QuickClock.application.ports.out.ClockEventOutboxPort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Component
+public class ClockEventOutboxCleanup {
+    // Relayed and parked events are kept for a week for troubleshooting
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    private final ClockEventOutboxPort clockEventOutbox;
+
+    public ClockEventOutboxCleanup(ClockEventOutboxPort clockEventOutbox) {
+        this.clockEventOutbox = clockEventOutbox;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")  // Every day at 3:30 AM
+    public void cleanupProcessedEvents() {
+        clockEventOutbox.deleteProcessedBefore(Instant.now().minus(RETENTION));
+    }
+}
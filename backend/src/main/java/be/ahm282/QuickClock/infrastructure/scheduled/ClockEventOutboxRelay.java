@@ -0,0 +1,85 @@
+package be.ahm282.QuickClock.infrastructure.scheduled;
+
+import be.ahm282.QuickClock.application.services.ClockEventRelayService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the clock event outbox on its own thread rather than on the shared @Scheduled one, so a backlog
+ * never delays the SSE heartbeats or the stalled-send sweep.
+ */
+@Component
+public class ClockEventOutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(ClockEventOutboxRelay.class);
+
+    // Bounds one poll so a large backlog still yields between polls
+    private static final int MAX_BATCHES_PER_POLL = 20;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("outbox-relay").daemon().factory());
+
+    private final ClockEventRelayService relayService;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+
+    public ClockEventOutboxRelay(ClockEventRelayService relayService,
+                                 @Value("${app.outbox.batch-size:100}") int batchSize,
+                                 @Value("${app.outbox.poll-interval-millis:500}") long pollIntervalMillis) {
+        this.relayService = relayService;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // A task that throws is never rescheduled, so nothing may escape
+    private void poll() {
+        try {
+            relayPendingEvents();
+        } catch (RuntimeException ex) {
+            log.warn("Clock event relay poll failed: {}", ex.toString());
+        }
+    }
+
+    public void relayPendingEvents() {
+        for (int batch = 0; batch < MAX_BATCHES_PER_POLL; batch++) {
+            int relayed;
+            try {
+                relayed = relayService.relayBatch(batchSize);
+            } catch (RuntimeException ex) {
+                log.warn("Clock event batch failed, retrying events one by one: {}", ex.toString());
+                relayIndividually();
+                return;
+            }
+            if (relayed < batchSize) return;
+        }
+    }
+
+    // One transaction per event, so a poison event is retried (and eventually parked) on its own
+    private void relayIndividually() {
+        for (Long id : relayService.findPendingIds(batchSize)) {
+            try {
+                relayService.relayOne(id);
+            } catch (RuntimeException ex) {
+                log.warn("Clock event {} failed: {}", id, ex.toString());
+                relayService.recordFailure(id, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package be.ahm282.QuickClock.infrastructure.scheduled;
+
+import be.ahm282.QuickClock.infrastructure.adapters.out.persistence.auth.RevokedTokenCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up tokens revoked on other instances and drops expired ones from memory.
+ */
+@Component
+public class RevokedTokenCacheSync {
+    private final RevokedTokenCache revokedTokenCache;
+
+    public RevokedTokenCacheSync(RevokedTokenCache revokedTokenCache) {
+        this.revokedTokenCache = revokedTokenCache;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-sync-millis:30000}")
+    public void syncRevokedTokens() {
+        revokedTokenCache.reload();
+    }
+}
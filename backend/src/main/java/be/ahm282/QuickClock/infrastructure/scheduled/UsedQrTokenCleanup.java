@@ -0,0 +1,23 @@
+package be.ahm282.QuickClock.infrastructure.scheduled;
+
+import be.ahm282.QuickClock.infrastructure.adapters.out.persistence.replay.PostgresTokenReplayStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+@ConditionalOnProperty(name = "app.clocking.replay-store", havingValue = "postgres")
+public class UsedQrTokenCleanup {
+    private final PostgresTokenReplayStore replayStore;
+
+    public UsedQrTokenCleanup(PostgresTokenReplayStore replayStore) {
+        this.replayStore = replayStore;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void cleanupExpiredTokenIds() {
+        replayStore.pruneExpired(Instant.now().getEpochSecond());
+    }
+}
@@ -0,0 +1,21 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal installed by JwtAuthFilter from the verified access token,
+ * so request handling never has to parse the token again.
+ */
+public record AuthenticatedUser(
+        Long userId,
+        String username,
+        String jti,
+        List<String> roles
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,35 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import java.util.Optional;
+
+/**
+ * The bcrypt cost this node hashes new passwords with, as calibrated at startup.
+ */
+public record BcryptCost(int value) {
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+
+    /**
+     * Hashes from before the {bcrypt} prefix existed are always flagged for upgrade. When such a hash is
+     * already at this cost or above, adding the prefix is the whole upgrade: rehashing could only lower it.
+     */
+    public Optional<String> prefixOnlyUpgrade(String storedHash) {
+        if (storedHash.startsWith("{") || costOf(storedHash) < value) {
+            return Optional.empty();
+        }
+        return Optional.of(BCRYPT_PREFIX + storedHash);
+    }
+
+    // bcrypt hashes read $2a$<cost>$<salt+hash>; -1 when the cost cannot be read
+    static int costOf(String hash) {
+        String[] parts = hash.split("\\$", 4);
+        if (parts.length < 4) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
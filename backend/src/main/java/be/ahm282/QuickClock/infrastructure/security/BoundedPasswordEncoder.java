@@ -0,0 +1,127 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import be.ahm282.QuickClock.domain.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hashing on a small dedicated pool instead of whichever request thread asked for it.
+ * At most `threads` hashes run at once and at most `queueCapacity` wait; beyond that, or when a hash
+ * has waited longer than `maxWaitMillis`, the caller gets a ServiceBusyException (503) straight away.
+ * A burst of logins therefore cannot take every CPU or request worker away from the clocking endpoints.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+
+    private final Timer queueWait;
+    private final Timer encodeTime;
+    private final Timer matchTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  MeterRegistry meterRegistry,
+                                  int threads,
+                                  int queueCapacity,
+                                  long maxWaitMillis) {
+        this.delegate = delegate;
+        this.maxWaitMillis = maxWaitMillis;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.queueWait = Timer.builder("quickclock.password.hash.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .register(meterRegistry);
+        this.encodeTime = hashTimer(meterRegistry, "encode");
+        this.matchTime = hashTimer(meterRegistry, "matches");
+        this.rejected = Counter.builder("quickclock.password.hash.rejected")
+                .description("Password hashes refused because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.password.hash.queued", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("quickclock.password.hash")
+                .tag("operation", operation)
+                .description("Time spent computing a password hash")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeTime);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchTime);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the stored hash's parameters; cheap enough to stay on the caller's thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> hash, Timer hashTime) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTime.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // Drops it from the queue if it has not started; a running hash is left to finish
+            future.cancel(false);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException ex) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (ex.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private static ServiceBusyException busy() {
+        return new ServiceBusyException("The server is busy signing people in. Please try again in a moment.");
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -60,7 +60,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
             // Check if the token is blacklisted/invalidated
             String jti = claims.getId();
-            boolean isTokenBlacklistedOrInvalidated = jti != null && invalidatedTokenRepository.findByJti(jti).isPresent();
+            boolean isTokenBlacklistedOrInvalidated = jti != null && invalidatedTokenRepository.isInvalidated(jti);
 
             if (isTokenBlacklistedOrInvalidated) {
                 log.warn("Invalidated token attempted use: jti={}", jti);
@@ -103,7 +103,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String username = claims.getSubject();
-        if (username == null) {
+        Long userId = claims.get("userId", Long.class);
+        if (username == null || userId == null) {
             return;
         }
 
@@ -120,8 +121,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                         .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
                         .collect(toUnmodifiableList());
 
+        AuthenticatedUser principal = new AuthenticatedUser(userId, username, claims.getId(), roles);
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                username,
+                principal,
                 null,
                 authorities
         );
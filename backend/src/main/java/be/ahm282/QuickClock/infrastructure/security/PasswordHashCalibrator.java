@@ -0,0 +1,50 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.security.SecureRandom;
+
+/**
+ * Picks the bcrypt cost for this machine at startup: the highest cost whose hash still fits the latency budget.
+ * Timing is taken at a cheap base cost and extrapolated, since every +1 of cost doubles the work.
+ */
+final class PasswordHashCalibrator {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+
+    private static final int BASE_COST = 8;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private PasswordHashCalibrator() {}
+
+    static int calibrateBcryptCost(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(BASE_COST, new SecureRandom());
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            probe.encode("calibration-warmup");
+        }
+
+        // Fastest of a few rounds: the least disturbed by GC or other startup work
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        double baseMillis = bestNanos / 1_000_000.0;
+        int cost = chooseCost(baseMillis, BASE_COST, targetMillis, minCost, maxCost);
+        log.info("Password hashing calibrated to bcrypt cost {} (~{} ms per hash, target {} ms)",
+                cost, Math.round(baseMillis * Math.pow(2, cost - BASE_COST)), targetMillis);
+        return cost;
+    }
+
+    static int chooseCost(double baseMillis, int baseCost, long targetMillis, int minCost, int maxCost) {
+        int cost = minCost;
+        while (cost < maxCost && baseMillis * Math.pow(2, cost + 1 - baseCost) <= targetMillis) {
+            cost++;
+        }
+        return cost;
+    }
+}
@@ -1,6 +1,8 @@
 package be.ahm282.QuickClock.infrastructure.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,16 +13,21 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
 
 import java.security.SecureRandom;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final String BCRYPT_ID = "bcrypt";
+
     private final JwtAuthFilter jwtAuthFilter;
     private final TimeWindowGuardFilter timeWindowGuardFilter;
 
@@ -30,8 +37,34 @@ public class SecurityConfig {
     }
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12, new SecureRandom());
+    public BcryptCost bcryptCost(@Value("${app.password.hash-target-millis:250}") long hashTargetMillis,
+                                 @Value("${app.password.bcrypt-min-cost:12}") int bcryptMinCost,
+                                 @Value("${app.password.bcrypt-max-cost:16}") int bcryptMaxCost) {
+        return new BcryptCost(PasswordHashCalibrator.calibrateBcryptCost(hashTargetMillis, bcryptMinCost, bcryptMaxCost));
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           BcryptCost bcryptCost,
+                                           @Value("${app.password.hashing-threads:0}") int hashingThreads,
+                                           @Value("${app.password.hashing-queue-capacity:32}") int hashingQueueCapacity,
+                                           @Value("${app.password.hashing-max-wait-millis:3000}") long hashingMaxWaitMillis) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptCost.value(), new SecureRandom());
+
+        // New hashes are stored as {bcrypt}...; hashes from before the prefix existed still match,
+        // and upgradeEncoding flags them (and any cost below the calibrated one) for rehashing on login
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // By default half the cores, so a burst of logins leaves the rest for request handling
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(
+                delegating,
+                meterRegistry,
+                threads,
+                hashingQueueCapacity,
+                hashingMaxWaitMillis
+        );
     }
 
     @Bean
@@ -1,6 +1,5 @@
 package be.ahm282.QuickClock.infrastructure.security;
 
-import be.ahm282.QuickClock.application.ports.out.TokenProviderPort;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -11,12 +10,6 @@ import org.springframework.stereotype.Component;
 @Component
 public class SecurityUtil {
 
-    private final TokenProviderPort tokenProviderPort;
-
-    public SecurityUtil(TokenProviderPort tokenProviderPort) {
-        this.tokenProviderPort = tokenProviderPort;
-    }
-
     public Authentication getAuthenticationOrThrow() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated()) {
@@ -57,15 +50,19 @@ public class SecurityUtil {
         }
     }
 
-    public Long extractUserIdFromRequestToken(HttpServletRequest request) {
-        String header = request.getHeader("Authorization");
-
-        if (header == null || !header.startsWith("Bearer ")) {
+    /**
+     * The user behind the current request, as verified once by JwtAuthFilter.
+     */
+    public AuthenticatedUser getAuthenticatedUser() {
+        Authentication auth = getAuthenticationOrThrow();
+        if (!(auth.getPrincipal() instanceof AuthenticatedUser user)) {
             throw new AccessDeniedException("Not authenticated");
         }
+        return user;
+    }
 
-        String token = header.substring(7);
-        return tokenProviderPort.extractUserId(token);
+    public Long getCurrentUserId() {
+        return getAuthenticatedUser().userId();
     }
 
     public String getClientIp(HttpServletRequest request) { // TODO Re-evaluate this method if behind a proxy
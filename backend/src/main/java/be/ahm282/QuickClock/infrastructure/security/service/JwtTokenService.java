@@ -136,11 +136,6 @@ public class JwtTokenService implements TokenProviderPort {
         return parseClaims(token).getSubject();
     }
 
-    @Override
-    public Long extractUserId(String token) {
-        return parseClaims(token).get("userId", Long.class);
-    }
-
     @Override
     public String extractJti(String token) {
         return parseClaims(token).getId();
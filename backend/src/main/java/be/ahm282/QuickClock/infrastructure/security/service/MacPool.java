@@ -0,0 +1,63 @@
+package be.ahm282.QuickClock.infrastructure.security.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Initialized Mac instances per signing key, so steady-state signing skips the JCA provider lookup and key setup.
+ * Keys live in a bounded LRU; each key keeps a few idle instances, extra ones created under contention are dropped.
+ * Mac is not thread-safe: an instance is owned by one caller between poll and offer.
+ */
+class MacPool {
+
+    private static final int IDLE_INSTANCES_PER_KEY = 4;
+
+    private final String algorithm;
+    private final Map<String, Queue<Mac>> idle;
+
+    MacPool(String algorithm, int maxKeys) {
+        this.algorithm = algorithm;
+        this.idle = Collections.synchronizedMap(new LinkedHashMap<String, Queue<Mac>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Queue<Mac>> eldest) {
+                return size() > maxKeys;
+            }
+        });
+    }
+
+    byte[] doFinal(String key, byte[] data) {
+        return doFinal(key, data, 0, data.length);
+    }
+
+    byte[] doFinal(String key, byte[] data, int offset, int length) {
+        Queue<Mac> pool = idle.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(IDLE_INSTANCES_PER_KEY));
+        Mac mac = pool.poll();
+        if (mac == null) {
+            mac = newMac(key);
+        }
+
+        try {
+            mac.update(data, offset, length);
+            return mac.doFinal(); // also resets the instance for its next user
+        } finally {
+            pool.offer(mac);
+        }
+    }
+
+    private Mac newMac(String key) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), algorithm));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC generation failed", e);
+        }
+    }
+}
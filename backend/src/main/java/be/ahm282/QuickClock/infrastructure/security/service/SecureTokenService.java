@@ -1,19 +1,31 @@
 package be.ahm282.QuickClock.infrastructure.security.service;
 
+import be.ahm282.QuickClock.application.ports.out.TokenReplayStorePort;
+import be.ahm282.QuickClock.domain.model.IssuedQrToken;
 import be.ahm282.QuickClock.domain.model.TokenValidationResult;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Signed, short-lived, single-use QR tokens.
+ * <p>
+ * v1 (text): Base64url("v1|userId|purpose|kioskId|iat|exp|jti|Base64url(HMAC)").
+ * <p>
+ * v2 (binary), Base64url-encoded once:
+ * <pre>
+ * [0x02][purpose code][varint userId][varint kioskId length][kioskId UTF-8][varint iat][varint ttl][16-byte jti][16-byte MAC]
+ * </pre>
+ * The MAC is HMAC-SHA512 over every preceding byte, truncated to 128 bits.
+ * A decoded v1 token starts with 'v', so the first byte tells both formats apart.
+ */
 @Service
 public class SecureTokenService {
 
@@ -21,6 +33,10 @@ public class SecureTokenService {
     private static final String TOKEN_VERSION = "v1";
     private static final String FIELD_SEPARATOR = "|";
 
+    private static final byte TOKEN_VERSION_V2 = 0x02;
+    private static final int V2_MAC_BYTES = 16;
+    private static final String[] V2_PURPOSES = {null, "clock-in", "clock-out"};
+
     private static final long TOKEN_TTL_SECONDS = 30L;
     private static final long ALLOWED_CLOCK_SKEW_SECONDS = 5L;
     private static final int TOKEN_ID_BYTES = 16;
@@ -28,11 +44,95 @@ public class SecureTokenService {
     private static final int EXPECTED_FIELD_COUNT = 8;
 
     private final SecureRandom secureRandom = new SecureRandom();
-    private final Map<String, Long> usedTokenIds = new ConcurrentHashMap<>();
+    private final TokenReplayStorePort replayStore;
+    private final MacPool macPool;
+    private final int generatedVersion;
+
+    public SecureTokenService(TokenReplayStorePort replayStore,
+                              @Value("${app.clocking.secret-cache-max-entries:10000}") int maxSigningKeys,
+                              @Value("${app.clocking.qr-token-version:2}") int generatedVersion) {
+        this.replayStore = replayStore;
+        this.macPool = new MacPool(HMAC_ALGORITHM, maxSigningKeys);
+        this.generatedVersion = generatedVersion;
+    }
 
     public String generateToken(Long userId, String userSecret, String purpose, String kioskId) {
+        return issueToken(userId, userSecret, purpose, kioskId).token();
+    }
+
+    /**
+     * Generates a token and returns it together with its id, so callers need not decode it again.
+     */
+    public IssuedQrToken issueToken(Long userId, String userSecret, String purpose, String kioskId) {
         long iat = currentEpochSeconds();
         long exp = iat + TOKEN_TTL_SECONDS;
+
+        // Purposes without a v2 code (none today) keep using the text format
+        int purposeCode = v2PurposeCode(purpose);
+        if (generatedVersion >= 2 && purposeCode > 0) {
+            return generateV2(userId, userSecret, purposeCode, kioskId, iat, exp);
+        }
+        return generateV1(userId, userSecret, purpose, kioskId, iat, exp);
+    }
+
+    public TokenValidationResult validate(String token, String userSecret, String expectedPurpose, String expectedKioskId) {
+        byte[] raw = decodeRaw(token);
+        TokenValidationResult claims = raw[0] == TOKEN_VERSION_V2
+                ? parseV2(raw, userSecret)
+                : parseV1(new String(raw, StandardCharsets.UTF_8), userSecret);
+
+        long now = currentEpochSeconds();
+        long issuedAt = claims.issuedAt().getEpochSecond();
+        long expiresAt = claims.expiresAt().getEpochSecond();
+        if (now + ALLOWED_CLOCK_SKEW_SECONDS < issuedAt || now - ALLOWED_CLOCK_SKEW_SECONDS > expiresAt) {
+            throw new IllegalArgumentException("Token expired or not valid");
+        }
+
+        if (expectedPurpose != null && !Objects.equals(claims.purpose(), expectedPurpose)) {
+            throw new IllegalArgumentException("Purpose mismatch");
+        }
+        if (expectedKioskId != null && !Objects.equals(claims.kioskId(), expectedKioskId)) {
+            throw new IllegalArgumentException("Kiosk mismatch");
+        }
+
+        // Single-use check (atomic). The id must be remembered for as long as the token can still pass the check above.
+        if (!replayStore.markUsed(claims.tokenId(), expiresAt + ALLOWED_CLOCK_SKEW_SECONDS + 1, now)) {
+            throw new IllegalArgumentException("Token already used");
+        }
+
+        return claims;
+    }
+
+    /**
+     * Reads the user id without verifying the token, to look up the secret it must be verified with.
+     */
+    public long peekUserId(String token) {
+        byte[] raw = decodeRaw(token);
+        if (raw[0] == TOKEN_VERSION_V2) {
+            return new V2Reader(raw, 2, raw.length).readVarLong();
+        }
+        return parseLong(splitV1(new String(raw, StandardCharsets.UTF_8))[1], "userId");
+    }
+
+    /**
+     * Reads the token id without verifying the token (used to key scan notifications).
+     */
+    public String peekTokenId(String token) {
+        byte[] raw = decodeRaw(token);
+        if (raw[0] == TOKEN_VERSION_V2) {
+            V2Reader reader = new V2Reader(raw, 2, raw.length - V2_MAC_BYTES);
+            reader.readVarLong();             // userId
+            reader.skip(reader.readVarInt()); // kioskId
+            reader.readVarLong();             // iat
+            reader.readVarLong();             // ttl
+            return reader.readTokenId();
+        }
+        return splitV1(new String(raw, StandardCharsets.UTF_8))[6];
+    }
+
+    // ----------------------- v1 (text) -----------------------
+
+    private IssuedQrToken generateV1(Long userId, String userSecret, String purpose, String kioskId, long iat, long exp) {
         String jti = randomBase64Url();
 
         String payload = String.join(FIELD_SEPARATOR,
@@ -48,16 +148,13 @@ public class SecureTokenService {
         String signature = hmac(userSecret, payload);
         String token = payload + FIELD_SEPARATOR + signature;
 
-        return Base64.getUrlEncoder().withoutPadding()
+        String encoded = Base64.getUrlEncoder().withoutPadding()
                 .encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        return new IssuedQrToken(userId, encoded, jti);
     }
 
-    public TokenValidationResult validate(String token, String userSecret, String expectedPurpose, String expectedKioskId) {
-        String decoded = decodeToken(token);
-        String[] parts = decoded.split("\\|", EXPECTED_FIELD_COUNT);
-        if (parts.length != EXPECTED_FIELD_COUNT) {
-            throw new IllegalArgumentException("Malformed token");
-        }
+    private TokenValidationResult parseV1(String decoded, String userSecret) {
+        String[] parts = splitV1(decoded);
 
         String version = parts[0];
         if (!TOKEN_VERSION.equals(version)) {
@@ -72,11 +169,6 @@ public class SecureTokenService {
         String tokenId = parts[6];
         String providedSignature = parts[7];
 
-        long now = currentEpochSeconds();
-        if (now + ALLOWED_CLOCK_SKEW_SECONDS < issuedAt || now - ALLOWED_CLOCK_SKEW_SECONDS > expiresAt) {
-            throw new IllegalArgumentException("Token expired or not valid");
-        }
-
         String payload = String.join(FIELD_SEPARATOR, version, Long.toString(userId), purpose,
                 nullToEmpty(kioskId), Long.toString(issuedAt), Long.toString(expiresAt), tokenId);
         String expectedSig = hmac(userSecret, payload);
@@ -86,47 +178,194 @@ public class SecureTokenService {
             throw new IllegalArgumentException("Bad signature");
         }
 
-        if (expectedPurpose != null && !Objects.equals(purpose, expectedPurpose)) {
-            throw new IllegalArgumentException("Purpose mismatch");
+        return new TokenValidationResult(userId, purpose, kioskId,
+                Instant.ofEpochSecond(issuedAt),
+                Instant.ofEpochSecond(expiresAt),
+                tokenId);
+    }
+
+    private static String[] splitV1(String decoded) {
+        String[] parts = decoded.split("\\|", EXPECTED_FIELD_COUNT);
+        if (parts.length != EXPECTED_FIELD_COUNT) {
+            throw new IllegalArgumentException("Malformed token");
         }
-        if (expectedKioskId != null && !Objects.equals(kioskId, expectedKioskId)) {
-            throw new IllegalArgumentException("Kiosk mismatch");
+        return parts;
+    }
+
+    // ----------------------- v2 (binary) -----------------------
+
+    private IssuedQrToken generateV2(Long userId, String userSecret, int purposeCode, String kioskId, long iat, long exp) {
+        byte[] kiosk = kioskId == null ? new byte[0] : kioskId.getBytes(StandardCharsets.UTF_8);
+        byte[] buffer = new byte[2 + 10 + 5 + kiosk.length + 10 + 10 + TOKEN_ID_BYTES + V2_MAC_BYTES];
+
+        int pos = 0;
+        buffer[pos++] = TOKEN_VERSION_V2;
+        buffer[pos++] = (byte) purposeCode;
+        pos = writeVarLong(buffer, pos, userId);
+        pos = writeVarLong(buffer, pos, kiosk.length);
+        System.arraycopy(kiosk, 0, buffer, pos, kiosk.length);
+        pos += kiosk.length;
+        pos = writeVarLong(buffer, pos, iat);
+        pos = writeVarLong(buffer, pos, exp - iat);
+
+        byte[] jti = new byte[TOKEN_ID_BYTES];
+        secureRandom.nextBytes(jti);
+        System.arraycopy(jti, 0, buffer, pos, TOKEN_ID_BYTES);
+        pos += TOKEN_ID_BYTES;
+
+        byte[] mac = macPool.doFinal(userSecret, buffer, 0, pos);
+        System.arraycopy(mac, 0, buffer, pos, V2_MAC_BYTES);
+        pos += V2_MAC_BYTES;
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return new IssuedQrToken(userId, encoder.encodeToString(Arrays.copyOf(buffer, pos)), encoder.encodeToString(jti));
+    }
+
+    private TokenValidationResult parseV2(byte[] raw, String userSecret) {
+        int macOffset = raw.length - V2_MAC_BYTES;
+        if (macOffset < 2) {
+            throw new IllegalArgumentException("Malformed token");
         }
 
-        // Single-use check (atomic)
-        if (!markTokenIdAsUsed(tokenId, expiresAt)) {
-            throw new IllegalArgumentException("Token already used");
+        byte[] expectedMac = macPool.doFinal(userSecret, raw, 0, macOffset);
+        int diff = 0;
+        for (int i = 0; i < V2_MAC_BYTES; i++) {
+            diff |= expectedMac[i] ^ raw[macOffset + i];
+        }
+        if (diff != 0) {
+            throw new IllegalArgumentException("Bad signature");
         }
 
-        cleanUpExpiredTokens(now);
+        int purposeCode = raw[1];
+        if (purposeCode <= 0 || purposeCode >= V2_PURPOSES.length) {
+            throw new IllegalArgumentException("Malformed purpose");
+        }
 
-        return new TokenValidationResult(userId, purpose, kioskId,
+        V2Reader reader = new V2Reader(raw, 2, macOffset);
+        long userId = reader.readVarLong();
+        String kioskId = reader.readString(reader.readVarInt());
+        long issuedAt = reader.readVarLong();
+        long expiresAt = issuedAt + reader.readVarLong();
+        String tokenId = reader.readTokenId();
+        if (!reader.atEnd()) {
+            throw new IllegalArgumentException("Malformed token");
+        }
+
+        return new TokenValidationResult(userId, V2_PURPOSES[purposeCode], emptyToNull(kioskId),
                 Instant.ofEpochSecond(issuedAt),
                 Instant.ofEpochSecond(expiresAt),
                 tokenId);
     }
 
+    private static int v2PurposeCode(String purpose) {
+        for (int code = 1; code < V2_PURPOSES.length; code++) {
+            if (V2_PURPOSES[code].equals(purpose)) {
+                return code;
+            }
+        }
+        return 0;
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on every byte but the last
+    private static int writeVarLong(byte[] buffer, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
+
+    /**
+     * Bounds-checked cursor over the v2 fields in raw[pos, end).
+     */
+    private static final class V2Reader {
+        private final byte[] raw;
+        private final int end;
+        private int pos;
+
+        V2Reader(byte[] raw, int pos, int end) {
+            this.raw = raw;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= end) {
+                    throw new IllegalArgumentException("Malformed token");
+                }
+                byte b = raw[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        throw new IllegalArgumentException("Malformed token");
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed token");
+        }
+
+        int readVarInt() {
+            long value = readVarLong();
+            if (value > MAX_TOKEN_BYTES) {
+                throw new IllegalArgumentException("Malformed token");
+            }
+            return (int) value;
+        }
+
+        void skip(int length) {
+            require(length);
+            pos += length;
+        }
+
+        String readString(int length) {
+            require(length);
+            String value = new String(raw, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        // Same representation as the v1 jti, so replay protection and scan notifications need not care
+        String readTokenId() {
+            require(TOKEN_ID_BYTES);
+            byte[] jti = Arrays.copyOfRange(raw, pos, pos + TOKEN_ID_BYTES);
+            pos += TOKEN_ID_BYTES;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(jti);
+        }
+
+        boolean atEnd() {
+            return pos == end;
+        }
+
+        private void require(int length) {
+            if (length < 0 || end - pos < length) {
+                throw new IllegalArgumentException("Malformed token");
+            }
+        }
+    }
+
     // ----------------------- helpers -----------------------
 
-    public String decodeToken(String token) {
+    private static byte[] decodeRaw(String token) {
+        if (token == null || token.length() > MAX_TOKEN_BYTES * 4 / 3 + 4) {
+            throw new IllegalArgumentException("Token too large");
+        }
+
         byte[] raw = Base64.getUrlDecoder().decode(token);
 
-        if (raw.length > MAX_TOKEN_BYTES) {
-            throw new IllegalArgumentException("Token too large");
+        if (raw.length == 0) {
+            throw new IllegalArgumentException("Malformed token");
         }
 
-        return new String(raw, StandardCharsets.UTF_8);
+        return raw;
     }
 
     private String hmac(String secret, String data) {
-        try {
-            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
-            byte[] raw = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
-        } catch (Exception e) {
-            throw new IllegalStateException("HMAC generation failed", e);
-        }
+        byte[] raw = macPool.doFinal(secret, data.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
     }
 
     private String randomBase64Url() {
@@ -135,15 +374,6 @@ public class SecureTokenService {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
-    private boolean markTokenIdAsUsed(String tokenId, long expiresAt) {
-        // returns true if first use, false if already present
-        return usedTokenIds.putIfAbsent(tokenId, expiresAt) == null;
-    }
-
-    private void cleanUpExpiredTokens(long now) {
-        usedTokenIds.entrySet().removeIf(e -> e.getValue() + ALLOWED_CLOCK_SKEW_SECONDS < now);
-    }
-
     private static long currentEpochSeconds() { return Instant.now().getEpochSecond(); }
 
     private static String nullToEmpty(String s) { return s == null ? "" : s; }
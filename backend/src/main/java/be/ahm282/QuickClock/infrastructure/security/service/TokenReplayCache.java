@@ -0,0 +1,125 @@
+package be.ahm282.QuickClock.infrastructure.security.service;
+
+import be.ahm282.QuickClock.application.ports.out.TokenReplayStorePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers used QR token ids until they can no longer validate.
+ * Ids are filed in a ring of per-second buckets keyed by the second they may be forgotten, so inserting
+ * and expiring are O(1) amortized: each call only drains the buckets of the seconds that passed since the last one.
+ * The number of remembered ids has a hard cap; when it is reached new tokens are rejected (fail closed)
+ * rather than forgetting ids that could still be replayed.
+ * <p>
+ * This is the single-node replay store; the PostgreSQL store also uses it as its local front.
+ */
+@Component
+@ConditionalOnProperty(name = "app.clocking.replay-store", havingValue = "memory", matchIfMissing = true)
+public class TokenReplayCache implements TokenReplayStorePort {
+
+    // Power of two, comfortably above token TTL + clock skew on both sides
+    static final int RING_SECONDS = 128;
+    private static final int RING_MASK = RING_SECONDS - 1;
+
+    private final int maxEntries;
+    private final Map<String, Long> live = new HashMap<>();
+    private final List<List<String>> buckets = new ArrayList<>(RING_SECONDS);
+    private final long[] bucketSeconds = new long[RING_SECONDS];
+    private long sweptUpTo = Long.MIN_VALUE;
+
+    private final Counter replaysRejected;
+    private final Counter capacityRejected;
+    private final Counter evicted;
+
+    public TokenReplayCache(MeterRegistry meterRegistry,
+                            @Value("${app.clocking.replay-cache-max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        for (int i = 0; i < RING_SECONDS; i++) {
+            buckets.add(new ArrayList<>());
+        }
+
+        this.replaysRejected = Counter.builder("quickclock.qr.replay.rejected")
+                .tag("reason", "replay")
+                .description("QR tokens rejected because their id was already used")
+                .register(meterRegistry);
+        this.capacityRejected = Counter.builder("quickclock.qr.replay.rejected")
+                .tag("reason", "capacity")
+                .description("QR tokens rejected because the replay cache was full or the token outlives its horizon")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("quickclock.qr.replay.evicted")
+                .description("Used QR token ids forgotten after they could no longer validate")
+                .register(meterRegistry);
+        Gauge.builder("quickclock.qr.replay.size", this, TokenReplayCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a token id as used until (exclusive) {@code forgetAtSecond}.
+     *
+     * @return true on first use, false for a replay or when the id cannot be remembered safely
+     */
+    @Override
+    public synchronized boolean markUsed(String tokenId, long forgetAtSecond, long nowSecond) {
+        sweep(nowSecond);
+
+        if (live.containsKey(tokenId)) {
+            replaysRejected.increment();
+            return false;
+        }
+        if (live.size() >= maxEntries || forgetAtSecond - nowSecond >= RING_SECONDS) {
+            capacityRejected.increment();
+            return false;
+        }
+
+        long second = Math.max(forgetAtSecond, nowSecond + 1);
+        int index = (int) (second & RING_MASK);
+        // Every bucket of a second <= now has been drained, so this one is empty or already holds `second`
+        bucketSeconds[index] = second;
+        buckets.get(index).add(tokenId);
+        live.put(tokenId, second);
+        return true;
+    }
+
+    /**
+     * Read-only check, for stores that record the id elsewhere first.
+     */
+    public synchronized boolean isUsed(String tokenId, long nowSecond) {
+        sweep(nowSecond);
+        return live.containsKey(tokenId);
+    }
+
+    public synchronized int size() {
+        return live.size();
+    }
+
+    private void sweep(long nowSecond) {
+        if (sweptUpTo == Long.MIN_VALUE) {
+            sweptUpTo = nowSecond;
+            return;
+        }
+
+        // After a long idle period one lap over the ring covers everything
+        long from = Math.max(sweptUpTo + 1, nowSecond - RING_SECONDS + 1);
+        for (long second = from; second <= nowSecond; second++) {
+            int index = (int) (second & RING_MASK);
+            List<String> bucket = buckets.get(index);
+            if (!bucket.isEmpty() && bucketSeconds[index] <= second) {
+                for (String tokenId : bucket) {
+                    live.remove(tokenId);
+                }
+                evicted.increment(bucket.size());
+                bucket.clear();
+            }
+        }
+        sweptUpTo = Math.max(sweptUpTo, nowSecond);
+    }
+}
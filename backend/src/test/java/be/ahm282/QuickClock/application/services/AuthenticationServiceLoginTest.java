@@ -0,0 +1,141 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.ports.out.*;
+import be.ahm282.QuickClock.domain.exception.AuthenticationException;
+import be.ahm282.QuickClock.domain.model.Role;
+import be.ahm282.QuickClock.domain.model.User;
+import be.ahm282.QuickClock.infrastructure.security.BcryptCost;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceLoginTest {
+
+    @Mock
+    private UserRepositoryPort userRepositoryPort;
+
+    @Mock
+    private InviteCodeRepositoryPort inviteCodeRepositoryPort;
+
+    @Mock
+    private RefreshTokenRepositoryPort refreshTokenRepositoryPort;
+
+    @Mock
+    private TokenProviderPort tokenProviderPort;
+
+    @Mock
+    private BreachedPasswordCheckPort breachedPasswordCheckPort;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private AuthenticationService authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        authenticationService = new AuthenticationService(userRepositoryPort, inviteCodeRepositoryPort,
+                refreshTokenRepositoryPort, tokenProviderPort, passwordEncoder, new BcryptCost(12),
+                breachedPasswordCheckPort, 42);
+    }
+
+    @Test
+    void testLogin_failureIsRecordedWithSingleUpdate() {
+        when(userRepositoryPort.findByUsername("john")).thenReturn(Optional.of(user("{bcrypt}hash", 4)));
+        when(passwordEncoder.matches("wrong", "{bcrypt}hash")).thenReturn(false);
+
+        assertThrows(AuthenticationException.class, () -> authenticationService.login("john", "wrong"));
+
+        verify(userRepositoryPort).recordFailedLogin(eq(7L), eq(5), any(Instant.class));
+        verify(userRepositoryPort, never()).save(any());
+    }
+
+    @Test
+    void testLogin_successResetsBookkeepingAndRehashesOutdatedHash() {
+        when(userRepositoryPort.findByUsername("john")).thenReturn(Optional.of(user("legacy", 2)));
+        when(passwordEncoder.matches("secret", "legacy")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("legacy")).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn("{bcrypt}fresh");
+        stubTokenIssuing();
+
+        authenticationService.login("john", "secret");
+
+        verify(userRepositoryPort).updatePasswordHash(7L, "{bcrypt}fresh");
+        verify(userRepositoryPort).recordSuccessfulLogin(eq(7L), any(Instant.class));
+        verify(userRepositoryPort, never()).save(any());
+    }
+
+    @Test
+    void testLogin_strongerLegacyHashOnlyGetsThePrefix() {
+        String legacy = "$2a$14$abcdefghijklmnopqrstuuO1FuHhIUpV7w4JxwyKZ9mmSF1mj8mRa";
+        when(userRepositoryPort.findByUsername("john")).thenReturn(Optional.of(user(legacy, 0)));
+        when(passwordEncoder.matches("secret", legacy)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(legacy)).thenReturn(true);
+        stubTokenIssuing();
+
+        authenticationService.login("john", "secret");
+
+        verify(userRepositoryPort).updatePasswordHash(7L, "{bcrypt}" + legacy);
+        verify(passwordEncoder, never()).encode("secret");
+    }
+
+    @Test
+    void testLogin_weakerLegacyHashIsRehashed() {
+        String legacy = "$2a$10$abcdefghijklmnopqrstuuO1FuHhIUpV7w4JxwyKZ9mmSF1mj8mRa";
+        String fresh = "{bcrypt}$2a$12$abcdefghijklmnopqrstuuXr2dLxPjNK0f8U1eDPRSv5H1FPoxDcy";
+        when(userRepositoryPort.findByUsername("john")).thenReturn(Optional.of(user(legacy, 0)));
+        when(passwordEncoder.matches("secret", legacy)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(legacy)).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn(fresh);
+        stubTokenIssuing();
+
+        authenticationService.login("john", "secret");
+
+        verify(userRepositoryPort).updatePasswordHash(7L, fresh);
+    }
+
+    @Test
+    void testLogin_currentHashIsLeftAlone() {
+        when(userRepositoryPort.findByUsername("john")).thenReturn(Optional.of(user("{bcrypt}hash", 0)));
+        when(passwordEncoder.matches("secret", "{bcrypt}hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}hash")).thenReturn(false);
+        stubTokenIssuing();
+
+        authenticationService.login("john", "secret");
+
+        verify(userRepositoryPort, never()).updatePasswordHash(any(), any());
+        verify(userRepositoryPort).recordSuccessfulLogin(eq(7L), any(Instant.class));
+    }
+
+    private User user(String passwordHash, int failedLoginAttempts) {
+        return User.builder()
+                .id(7L)
+                .username("john")
+                .passwordHash(passwordHash)
+                .roles(Set.of(Role.EMPLOYEE))
+                .active(true)
+                .failedLoginAttempts(failedLoginAttempts)
+                .build();
+    }
+
+    private void stubTokenIssuing() {
+        when(tokenProviderPort.generateRefreshToken(any(), any(), any(), any())).thenReturn("refresh");
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti");
+        when(claims.getExpiration()).thenReturn(Date.from(Instant.now().plusSeconds(3600)));
+        when(tokenProviderPort.parseClaims("refresh")).thenReturn(claims);
+    }
+}
@@ -0,0 +1,82 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.ports.in.ClockEventSubscriber;
+import be.ahm282.QuickClock.application.ports.out.ClockEventOutboxPort;
+import be.ahm282.QuickClock.domain.model.ClockEvent;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClockEventRelayServiceTest {
+
+    @Mock
+    private ClockEventOutboxPort outbox;
+
+    @Mock
+    private ClockEventSubscriber boardSubscriber;
+
+    @Mock
+    private ClockEventSubscriber rollupSubscriber;
+
+    private ClockEventRelayService relayService;
+
+    @BeforeEach
+    void setUp() {
+        relayService = new ClockEventRelayService(outbox, List.of(boardSubscriber, rollupSubscriber));
+    }
+
+    private static ClockEvent event(long id) {
+        Instant at = Instant.parse("2025-01-01T08:00:00Z");
+        return new ClockEvent(id, 100 + id, 1L, ClockRecordType.IN, at, false, at);
+    }
+
+    @Test
+    void testRelayBatch_deliversEveryEventToEverySubscriberThenMarksThemProcessed() {
+        ClockEvent first = event(1);
+        ClockEvent second = event(2);
+        when(outbox.claimPending(10)).thenReturn(List.of(first, second));
+
+        int relayed = relayService.relayBatch(10);
+
+        assertEquals(2, relayed);
+        InOrder inOrder = inOrder(boardSubscriber, rollupSubscriber, outbox);
+        inOrder.verify(boardSubscriber).onClockEvent(first);
+        inOrder.verify(rollupSubscriber).onClockEvent(first);
+        inOrder.verify(boardSubscriber).onClockEvent(second);
+        inOrder.verify(rollupSubscriber).onClockEvent(second);
+        inOrder.verify(outbox).markProcessed(eq(List.of(1L, 2L)), any(Instant.class));
+    }
+
+    @Test
+    void testRelayBatch_subscriberFailure_leavesEventsPending() {
+        when(outbox.claimPending(10)).thenReturn(List.of(event(1)));
+        doThrow(new IllegalStateException("boom")).when(rollupSubscriber).onClockEvent(any());
+
+        assertThrows(IllegalStateException.class, () -> relayService.relayBatch(10));
+
+        verify(outbox, never()).markProcessed(anyCollection(), any());
+    }
+
+    @Test
+    void testRelayOne_eventAlreadyClaimed_deliversNothing() {
+        when(outbox.claimPending(7L)).thenReturn(Optional.empty());
+
+        assertFalse(relayService.relayOne(7L));
+
+        verifyNoInteractions(boardSubscriber, rollupSubscriber);
+        verify(outbox, never()).markProcessed(anyCollection(), any());
+    }
+}
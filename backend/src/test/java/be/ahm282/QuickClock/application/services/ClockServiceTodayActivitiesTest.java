@@ -1,5 +1,6 @@
 package be.ahm282.QuickClock.application.services;
 
+import be.ahm282.QuickClock.application.ports.out.ClockEventOutboxPort;
 import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
 import be.ahm282.QuickClock.application.ports.out.QRTokenPort;
 import be.ahm282.QuickClock.application.ports.out.QrScanNotificationPort;
@@ -34,11 +35,14 @@ class ClockServiceTodayActivitiesTest {
     @Mock
     private QrScanNotificationPort qrScanNotificationPort;
 
+    @Mock
+    private ClockEventOutboxPort clockEventOutbox;
+
     private ClockService clockService;
 
     @BeforeEach
     void setUp() {
-        clockService = new ClockService(clockRepo, qrTokenPort, qrScanNotificationPort);
+        clockService = new ClockService(clockRepo, qrTokenPort, qrScanNotificationPort, clockEventOutbox);
     }
 
     @Test
@@ -0,0 +1,100 @@
+package be.ahm282.QuickClock.application.services;
+
+import be.ahm282.QuickClock.application.dto.response.WorkHoursReportRow;
+import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.User;
+import be.ahm282.QuickClock.infrastructure.config.LocalizationConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkHoursReportServiceTest {
+
+    private static final ZoneId CAIRO = ZoneId.of("Africa/Cairo");
+
+    @Mock
+    private ClockRecordRepositoryPort clockRecordRepository;
+
+    @Mock
+    private UserRepositoryPort userRepository;
+
+    @Mock
+    private LocalizationConfig localizationConfig;
+
+    private WorkHoursReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        // "Now" is Tuesday 2025-12-23 23:00 in Cairo
+        Clock fixedClock = Clock.fixed(LocalDateTime.of(2025, 12, 23, 23, 0).atZone(CAIRO).toInstant(), CAIRO);
+        reportService = new WorkHoursReportService(clockRecordRepository, userRepository, localizationConfig, fixedClock);
+    }
+
+    @Test
+    void testBuildReport_oneRangeQueryAndRowPerEmployee() {
+        // Given: two employees, only the first one worked (8h on the 20th, 4h on the 21st)
+        when(localizationConfig.getZoneId()).thenReturn(CAIRO);
+        User alice = employee(1L, "alice");
+        User bob = employee(2L, "bob");
+        when(userRepository.findAllActiveEmployees()).thenReturn(List.of(alice, bob));
+
+        LocalDate from = LocalDate.of(2025, 12, 20);
+        LocalDate to = LocalDate.of(2025, 12, 21);
+        List<ClockRecord> records = List.of(
+                ClockRecord.createAt(1L, ClockRecordType.IN, at(from, 9), null),
+                ClockRecord.createAt(1L, ClockRecordType.OUT, at(from, 17), null),
+                ClockRecord.createAt(1L, ClockRecordType.IN, at(to, 8), null),
+                ClockRecord.createAt(1L, ClockRecordType.OUT, at(to, 12), null)
+        );
+        Instant fetchFrom = from.atStartOfDay(CAIRO).toInstant().minus(Duration.ofHours(12));
+        Instant fetchTo = to.plusDays(1).atStartOfDay(CAIRO).toInstant().plus(Duration.ofHours(12));
+        when(clockRecordRepository.findActiveEmployeeRecordsBetween(fetchFrom, fetchTo)).thenReturn(records);
+
+        // When
+        List<WorkHoursReportRow> rows = reportService.buildReport(from, to);
+
+        // Then
+        assertEquals(2, rows.size());
+        assertEquals("alice", rows.get(0).username());
+        assertEquals(12.0, rows.get(0).hours().doubleValue(), 0.01);
+        assertEquals(2, rows.get(0).daysWorked());
+        assertEquals("bob", rows.get(1).username());
+        assertEquals(0.0, rows.get(1).hours().doubleValue(), 0.01);
+        assertEquals(0, rows.get(1).daysWorked());
+        verify(clockRecordRepository, times(1)).findActiveEmployeeRecordsBetween(any(), any());
+    }
+
+    @Test
+    void testBuildReport_rejectsInvertedRange() {
+        assertThrows(ValidationException.class,
+                () -> reportService.buildReport(LocalDate.of(2025, 12, 21), LocalDate.of(2025, 12, 20)));
+        verifyNoInteractions(clockRecordRepository, userRepository);
+    }
+
+    private static User employee(Long id, String username) {
+        return User.builder()
+                .id(id)
+                .publicId(UUID.randomUUID())
+                .username(username)
+                .displayName(username)
+                .build();
+    }
+
+    private static Instant at(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atZone(CAIRO).toInstant();
+    }
+}
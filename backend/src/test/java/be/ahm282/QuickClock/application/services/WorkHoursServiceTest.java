@@ -2,21 +2,30 @@ package be.ahm282.QuickClock.application.services;
 
 import be.ahm282.QuickClock.application.dto.response.WorkHoursResponse;
 import be.ahm282.QuickClock.application.ports.out.ClockRecordRepositoryPort;
+import be.ahm282.QuickClock.application.ports.out.DailyWorkSummaryRepositoryPort;
 import be.ahm282.QuickClock.domain.model.ClockRecord;
 import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.DailyWorkSummary;
 import be.ahm282.QuickClock.infrastructure.config.LocalizationConfig;
 import org.decimal4j.immutable.Decimal1f;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +34,9 @@ class WorkHoursServiceTest {
     @Mock
     private ClockRecordRepositoryPort clockRecordRepository;
 
+    @Mock
+    private DailyWorkSummaryRepositoryPort dailyWorkSummaryRepository;
+
     @Mock
     private LocalizationConfig localizationConfig;
 
@@ -34,8 +46,9 @@ class WorkHoursServiceTest {
     @BeforeEach
     void setUp() {
         // Configure for Egyptian timezone and week starting on Saturday
-        when(localizationConfig.getZoneId()).thenReturn(ZoneId.of("Africa/Cairo"));
-        when(localizationConfig.getWeekStartDay()).thenReturn(DayOfWeek.SATURDAY);
+        // Lenient: the overlap and refresh tests do not read every setting
+        lenient().when(localizationConfig.getZoneId()).thenReturn(ZoneId.of("Africa/Cairo"));
+        lenient().when(localizationConfig.getWeekStartDay()).thenReturn(DayOfWeek.SATURDAY);
 
         // Fix: Set "Now" to Tuesday Night (23:00) so earlier records (like 17:00) are in the past.
         LocalDateTime tuesdayNight = LocalDateTime.of(2025, 12, 23, 23, 0);
@@ -43,7 +56,7 @@ class WorkHoursServiceTest {
         Instant fixedInstant = tuesdayNight.atZone(cairo).toInstant();
 
         fixedClock = Clock.fixed(fixedInstant, cairo);
-        workHoursService = new WorkHoursService(clockRecordRepository, localizationConfig, fixedClock);
+        workHoursService = new WorkHoursService(clockRecordRepository, dailyWorkSummaryRepository, localizationConfig, fixedClock);
     }
 
     @Test
@@ -60,7 +73,7 @@ class WorkHoursServiceTest {
                 ClockRecord.createAt(1L, ClockRecordType.OUT, clockOut, null)
         );
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -87,7 +100,7 @@ class WorkHoursServiceTest {
                 ClockRecord.createAt(1L, ClockRecordType.OUT, session2Out, null)
         );
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -105,7 +118,7 @@ class WorkHoursServiceTest {
                 ClockRecord.createAt(1L, ClockRecordType.IN, twoHoursAgo, null)
         );
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -125,7 +138,7 @@ class WorkHoursServiceTest {
                 ClockRecord.createAt(1L, ClockRecordType.IN, twentyHoursAgo, null)
         );
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -166,7 +179,7 @@ class WorkHoursServiceTest {
         records.add(ClockRecord.createAt(1L, ClockRecordType.OUT,
                 monday.atTime(17, 0).atZone(cairo).toInstant(), null));
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -190,7 +203,7 @@ class WorkHoursServiceTest {
                 ClockRecord.createAt(1L, ClockRecordType.IN, yesterdayIn, null)
         );
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -211,7 +224,7 @@ class WorkHoursServiceTest {
         Instant fixedNow = todayNight.atZone(ZoneId.of("Africa/Cairo")).toInstant();
         Clock nightClock = Clock.fixed(fixedNow, ZoneId.of("Africa/Cairo"));
 
-        workHoursService = new WorkHoursService(clockRecordRepository, localizationConfig, nightClock);
+        workHoursService = new WorkHoursService(clockRecordRepository, dailyWorkSummaryRepository, localizationConfig, nightClock);
 
         LocalDate today = LocalDate.now(nightClock);
         ZoneId zone = ZoneId.of("Africa/Cairo");
@@ -224,7 +237,7 @@ class WorkHoursServiceTest {
                 ClockRecord.createAt(1L, ClockRecordType.OUT, clockOut, null)
         );
 
-        when(clockRecordRepository.findAllByUserId(1L)).thenReturn(records);
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(records);
 
         // When
         WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
@@ -236,6 +249,155 @@ class WorkHoursServiceTest {
         assertEquals(2.0, asDouble(result.hoursToday()), 0.01, "Should count 2 hours from midnight to 2am");
     }
 
+    @Test
+    void testMissingRollups_recomputedFromOneMaxShiftBeforeStartOfWeek() {
+        // Given: "Now" is Tuesday 2025-12-23, so the week started on Saturday 2025-12-20 (Cairo).
+        // No rollups are stored yet, so the past days are rebuilt from the raw records.
+        ZoneId cairo = ZoneId.of("Africa/Cairo");
+        Instant startOfWeek = LocalDate.of(2025, 12, 20).atStartOfDay(cairo).toInstant();
+
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(List.of());
+
+        // When
+        workHoursService.calculateWorkHours(1L);
+
+        // Then: only records from 12 hours before the week start are requested; the read stores nothing
+        verify(clockRecordRepository).findByUserIdSince(1L, startOfWeek.minus(Duration.ofHours(12)));
+        verify(dailyWorkSummaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testStoredRollups_onlyTodayReadFromRawRecords() {
+        // Given: Saturday to Monday are already rolled up (2h, 3h, 4h)
+        ZoneId cairo = ZoneId.of("Africa/Cairo");
+        LocalDate saturday = LocalDate.of(2025, 12, 20);
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+        Instant startOfToday = LocalDate.of(2025, 12, 23).atStartOfDay(cairo).toInstant();
+
+        when(dailyWorkSummaryRepository.findByUserIdAndWorkDateBetween(1L, saturday, monday)).thenReturn(List.of(
+                new DailyWorkSummary(1L, saturday, 2 * 3600, false),
+                new DailyWorkSummary(1L, saturday.plusDays(1), 3 * 3600, false),
+                new DailyWorkSummary(1L, monday, 4 * 3600, false)
+        ));
+
+        // Today: 09:00 - 10:00
+        List<ClockRecord> today = List.of(
+                ClockRecord.createAt(1L, ClockRecordType.IN, startOfToday.plus(Duration.ofHours(9)), null),
+                ClockRecord.createAt(1L, ClockRecordType.OUT, startOfToday.plus(Duration.ofHours(10)), null)
+        );
+        when(clockRecordRepository.findByUserIdSince(1L, startOfToday.minus(Duration.ofHours(12)))).thenReturn(today);
+
+        // When
+        WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
+
+        // Then
+        assertEquals(1.0, asDouble(result.hoursToday()), 0.01);
+        assertEquals(10.0, asDouble(result.hoursThisWeek()), 0.01);
+        verify(dailyWorkSummaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testWeekWithDayOff_readsOnlyRollups() {
+        // Given: Saturday was a day off (stored as zero), Sunday and Monday are rolled up (3h, 4h)
+        ZoneId cairo = ZoneId.of("Africa/Cairo");
+        LocalDate saturday = LocalDate.of(2025, 12, 20);
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+        Instant startOfToday = LocalDate.of(2025, 12, 23).atStartOfDay(cairo).toInstant();
+
+        when(dailyWorkSummaryRepository.findByUserIdAndWorkDateBetween(1L, saturday, monday)).thenReturn(List.of(
+                new DailyWorkSummary(1L, saturday, 0, false),
+                new DailyWorkSummary(1L, saturday.plusDays(1), 3 * 3600, false),
+                new DailyWorkSummary(1L, monday, 4 * 3600, false)
+        ));
+
+        // When
+        WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
+
+        // Then: the only raw records read are today's
+        assertEquals(7.0, asDouble(result.hoursThisWeek()), 0.01);
+        verify(clockRecordRepository).findByUserIdSince(eq(1L), any(Instant.class));
+        verify(clockRecordRepository).findByUserIdSince(1L, startOfToday.minus(Duration.ofHours(12)));
+    }
+
+    @Test
+    void testStaleRollup_onlyThatDayIsRecomputed() {
+        // Given: Sunday's rollup was taken while a session was open; Saturday and Monday are settled
+        ZoneId cairo = ZoneId.of("Africa/Cairo");
+        LocalDate saturday = LocalDate.of(2025, 12, 20);
+        LocalDate sunday = LocalDate.of(2025, 12, 21);
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+        Instant startOfSunday = sunday.atStartOfDay(cairo).toInstant();
+
+        when(dailyWorkSummaryRepository.findByUserIdAndWorkDateBetween(1L, saturday, monday)).thenReturn(List.of(
+                new DailyWorkSummary(1L, saturday, 2 * 3600, false),
+                new DailyWorkSummary(1L, sunday, 3600, true),
+                new DailyWorkSummary(1L, monday, 4 * 3600, false)
+        ));
+
+        // Sunday: 09:00 - 12:00
+        List<ClockRecord> sundayRecords = List.of(
+                ClockRecord.createAt(1L, ClockRecordType.IN, startOfSunday.plus(Duration.ofHours(9)), null),
+                ClockRecord.createAt(1L, ClockRecordType.OUT, startOfSunday.plus(Duration.ofHours(12)), null)
+        );
+        when(clockRecordRepository.findByUserIdSince(1L, startOfSunday.minus(Duration.ofHours(12)))).thenReturn(sundayRecords);
+
+        // When
+        WorkHoursResponse result = workHoursService.calculateWorkHours(1L);
+
+        // Then: 2 + 3 (recomputed) + 4
+        assertEquals(9.0, asDouble(result.hoursThisWeek()), 0.01);
+    }
+
+    @Test
+    void testRefreshDailySummaries_backfillsDaysSinceLatestRollup() {
+        // Given: the latest rollup is Saturday, Sunday was a day off, and Monday's session is being closed
+        ZoneId cairo = ZoneId.of("Africa/Cairo");
+        LocalDate sunday = LocalDate.of(2025, 12, 21);
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+        Instant mondayIn = monday.atTime(9, 0).atZone(cairo).toInstant();
+        Instant mondayOut = monday.atTime(17, 0).atZone(cairo).toInstant();
+
+        when(dailyWorkSummaryRepository.findLatestWorkDate(1L)).thenReturn(Optional.of(LocalDate.of(2025, 12, 20)));
+        when(clockRecordRepository.findByUserIdSince(eq(1L), any(Instant.class))).thenReturn(List.of(
+                ClockRecord.createAt(1L, ClockRecordType.IN, mondayIn, null),
+                ClockRecord.createAt(1L, ClockRecordType.OUT, mondayOut, null)
+        ));
+
+        // When
+        workHoursService.refreshDailySummaries(1L, mondayIn, mondayOut);
+
+        // Then: Sunday is stored as a zero row next to Monday's 8 hours
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DailyWorkSummary>> saved = ArgumentCaptor.forClass(List.class);
+        verify(dailyWorkSummaryRepository).saveAll(saved.capture());
+        assertEquals(List.of(
+                new DailyWorkSummary(1L, sunday, 0, false),
+                new DailyWorkSummary(1L, monday, 8 * 3600, false)
+        ), saved.getValue());
+    }
+
+    @Test
+    void testCalculateOverlapSeconds_fillsEveryWindowInOnePass() {
+        // Given: 22:00 - 02:00 overnight shift, then an IN at 20:00 the next day that is still open
+        long midnight = LocalDate.of(2025, 12, 22).atStartOfDay(ZoneId.of("Africa/Cairo")).toEpochSecond();
+        long hour = 3600;
+        List<ClockRecord> records = List.of(
+                ClockRecord.createAt(1L, ClockRecordType.IN, Instant.ofEpochSecond(midnight - 2 * hour), null),
+                ClockRecord.createAt(1L, ClockRecordType.OUT, Instant.ofEpochSecond(midnight + 2 * hour), null),
+                ClockRecord.createAt(1L, ClockRecordType.IN, Instant.ofEpochSecond(midnight + 20 * hour), null)
+        );
+
+        // Windows: day before, that day up to 23:00, both days together, and a window before any record
+        long[] starts = {midnight - 24 * hour, midnight, midnight - 24 * hour, midnight - 48 * hour};
+        long[] ends = {midnight, midnight + 23 * hour, midnight + 23 * hour, midnight - 24 * hour};
+
+        // When
+        long[] totals = WorkHoursService.calculateOverlapSeconds(records, starts, ends);
+
+        // Then
+        assertArrayEquals(new long[]{2 * hour, 5 * hour, 7 * hour, 0}, totals);
+    }
+
     // --- Helper Methods ---
 
     private static double asDouble(Decimal1f decimal) {
@@ -0,0 +1,64 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AfterCommitNotificationDispatcherTest {
+
+    private AfterCommitNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new AfterCommitNotificationDispatcher(new SimpleMeterRegistry(), 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testWithoutTransaction_dispatchesImmediately() throws InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+
+        dispatcher.dispatchAfterCommit(sent::countDown);
+
+        assertTrue(sent.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testInTransaction_dispatchesOnlyAfterCommit() throws InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.dispatchAfterCommit(sent::countDown);
+        assertFalse(sent.await(100, TimeUnit.MILLISECONDS));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(sent.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testInTransaction_rollbackNeverDispatches() throws InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.dispatchAfterCommit(sent::countDown);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(sent.await(100, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,52 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.AfterCommitNotificationDispatcher;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.KioskBoardPushService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresKioskBoardNotificationAdapterTest {
+
+    private final KioskBoardPushService kioskBoardPushService = mock(KioskBoardPushService.class);
+    private final AfterCommitNotificationDispatcher dispatcher = mock(AfterCommitNotificationDispatcher.class);
+    private final PostgresKioskBoardNotificationAdapter adapter =
+            new PostgresKioskBoardNotificationAdapter(mock(JdbcTemplate.class), kioskBoardPushService, dispatcher);
+
+    @Test
+    void testPayload_roundTrips() {
+        Instant at = Instant.ofEpochMilli(1_700_000_000_123L);
+
+        String payload = PostgresKioskBoardNotificationAdapter.encodePayload(42L, ClockRecordType.OUT, at);
+
+        assertEquals(Optional.of(new PostgresKioskBoardNotificationAdapter.ClockChange(42L, ClockRecordType.OUT, at)),
+                PostgresKioskBoardNotificationAdapter.decodePayload(payload));
+    }
+
+    @Test
+    void testPayload_malformedIsRejected() {
+        assertTrue(PostgresKioskBoardNotificationAdapter.decodePayload("42|IN").isEmpty());
+        assertTrue(PostgresKioskBoardNotificationAdapter.decodePayload("42|SIDEWAYS|1").isEmpty());
+        assertTrue(PostgresKioskBoardNotificationAdapter.decodePayload("x|IN|1").isEmpty());
+    }
+
+    @Test
+    void testHandle_publishesToLocalKiosksThroughDispatcher() {
+        Instant at = Instant.ofEpochMilli(1_700_000_000_000L);
+
+        adapter.handle(PostgresKioskBoardNotificationAdapter.encodePayload(42L, ClockRecordType.IN, at));
+
+        ArgumentCaptor<Runnable> push = ArgumentCaptor.forClass(Runnable.class);
+        verify(dispatcher).dispatchAfterCommit(push.capture());
+        push.getValue().run();
+        verify(kioskBoardPushService).publishClockChange(42L, ClockRecordType.IN, at);
+    }
+}
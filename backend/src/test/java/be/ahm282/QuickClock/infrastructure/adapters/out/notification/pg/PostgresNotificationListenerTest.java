@@ -0,0 +1,100 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresNotificationListenerTest {
+
+    private PostgresNotificationListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stopListening();
+        }
+    }
+
+    @Test
+    void testListen_reconnectsAfterFailureAndRoutesByChannel() throws Exception {
+        PostgresNotificationHandler scans = handler("qr_scan");
+        PostgresNotificationHandler board = handler("kiosk_board");
+
+        Statement statement = mock(Statement.class);
+        Connection connection = connectionDelivering(statement,
+                notification("kiosk_board", "42|IN|1"),
+                notification("unknown", "ignored"),
+                notification("qr_scan", "token|42|IN|1"));
+
+        // The first attempt fails, the second one connects
+        AtomicInteger attempts = new AtomicInteger();
+        listener = new PostgresNotificationListener(List.of(scans, board), () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new SQLException("connection refused");
+            }
+            return connection;
+        }, 10);
+
+        listener.startListening();
+
+        verify(scans, timeout(2000)).handle("token|42|IN|1");
+        verify(board).handle("42|IN|1");
+        verify(statement).execute("LISTEN qr_scan");
+        verify(statement).execute("LISTEN kiosk_board");
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testListen_failingHandlerDoesNotStopTheListener() throws Exception {
+        PostgresNotificationHandler scans = handler("qr_scan");
+        doThrow(new IllegalStateException("boom")).when(scans).handle("first");
+
+        Connection connection = connectionDelivering(mock(Statement.class),
+                notification("qr_scan", "first"),
+                notification("qr_scan", "second"));
+
+        listener = new PostgresNotificationListener(List.of(scans), () -> connection, 10);
+        listener.startListening();
+
+        verify(scans, timeout(2000)).handle("second");
+    }
+
+    private static PostgresNotificationHandler handler(String channel) {
+        PostgresNotificationHandler handler = mock(PostgresNotificationHandler.class);
+        when(handler.channel()).thenReturn(channel);
+        return handler;
+    }
+
+    private static PGNotification notification(String channel, String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getName()).thenReturn(channel);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+
+    private static Connection connectionDelivering(Statement statement, PGNotification... notifications) throws Exception {
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(notifications)
+                .thenAnswer(invocation -> {
+                    Thread.sleep(10);
+                    return null;
+                });
+
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        return connection;
+    }
+}
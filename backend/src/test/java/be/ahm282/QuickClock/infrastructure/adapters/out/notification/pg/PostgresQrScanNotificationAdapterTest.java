@@ -0,0 +1,62 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import be.ahm282.QuickClock.application.dto.response.QrScanStatusResponse;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.AfterCommitNotificationDispatcher;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrScanPushService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresQrScanNotificationAdapterTest {
+
+    private final QrScanPushService qrScanPushService = mock(QrScanPushService.class);
+    private final AfterCommitNotificationDispatcher dispatcher = mock(AfterCommitNotificationDispatcher.class);
+    private final PostgresQrScanNotificationAdapter adapter =
+            new PostgresQrScanNotificationAdapter(mock(JdbcTemplate.class), qrScanPushService, dispatcher);
+
+    @Test
+    void testPayload_roundTrips() {
+        Instant clockedAt = Instant.ofEpochMilli(1_700_000_000_123L);
+
+        String payload = PostgresQrScanNotificationAdapter.encodePayload("aB3-_x", 42L, "IN", clockedAt);
+
+        assertEquals(Optional.of(new QrScanStatusResponse("aB3-_x", 42L, "IN", clockedAt)),
+                PostgresQrScanNotificationAdapter.decodePayload(payload));
+    }
+
+    @Test
+    void testPayload_malformedIsRejected() {
+        assertTrue(PostgresQrScanNotificationAdapter.decodePayload("").isEmpty());
+        assertTrue(PostgresQrScanNotificationAdapter.decodePayload("token|42|IN").isEmpty());
+        assertTrue(PostgresQrScanNotificationAdapter.decodePayload("token|42|IN|1|extra").isEmpty());
+        assertTrue(PostgresQrScanNotificationAdapter.decodePayload("token|abc|IN|1").isEmpty());
+        assertTrue(PostgresQrScanNotificationAdapter.decodePayload("token|42|IN|").isEmpty());
+        assertTrue(PostgresQrScanNotificationAdapter.decodePayload("|42|IN|1").isEmpty());
+    }
+
+    @Test
+    void testHandle_pushesScanThroughDispatcher() {
+        Instant clockedAt = Instant.ofEpochMilli(1_700_000_000_000L);
+
+        adapter.handle(PostgresQrScanNotificationAdapter.encodePayload("token-1", 42L, "OUT", clockedAt));
+
+        ArgumentCaptor<Runnable> push = ArgumentCaptor.forClass(Runnable.class);
+        verify(dispatcher).dispatchAfterCommit(push.capture());
+        push.getValue().run();
+        verify(qrScanPushService).notifyScanned("token-1", new QrScanStatusResponse("token-1", 42L, "OUT", clockedAt));
+    }
+
+    @Test
+    void testHandle_ignoresMalformedPayload() {
+        adapter.handle("not-a-payload");
+
+        verify(dispatcher, never()).dispatchAfterCommit(any());
+    }
+}
@@ -0,0 +1,84 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.pg;
+
+import be.ahm282.QuickClock.domain.exception.NotFoundException;
+import be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse.QrScanPushService;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresQrSessionSubscriptionAdapterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final QrScanPushService qrScanPushService = mock(QrScanPushService.class);
+    private final PostgresQrSessionSubscriptionAdapter adapter =
+            new PostgresQrSessionSubscriptionAdapter(jdbcTemplate, qrScanPushService);
+
+    @Test
+    void testUpdate_appliesLocallyWhenThisNodeHoldsTheSession() {
+        when(qrScanPushService.holdsSession("session-1")).thenReturn(true);
+
+        adapter.update("session-1", "kiosk-1", List.of("token-1"), List.of("token-0"));
+
+        verify(qrScanPushService).updateSubscriptions("session-1", "kiosk-1", List.of("token-1"), List.of("token-0"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testUpdate_publishesWhenTheSessionIsHeldElsewhere() {
+        adapter.update("session-1", "kiosk-1", List.of("token-1"), List.of("token-0"));
+
+        verify(jdbcTemplate, times(2)).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq("qr_session"), anyString());
+        verify(qrScanPushService, never()).updateSubscriptions(any(), any(), any(), any());
+    }
+
+    @Test
+    void testPayloads_splitLargeChangesUnsubscriptionsFirst() {
+        List<String> subscribe = IntStream.range(0, 150).mapToObj(i -> "new-" + i).toList();
+        List<String> unsubscribe = List.of("old-1");
+
+        List<String> payloads = PostgresQrSessionSubscriptionAdapter.encodePayloads("s", "kiosk|1", subscribe, unsubscribe);
+
+        assertEquals(3, payloads.size());
+        PostgresQrSessionSubscriptionAdapter.SubscriptionChange first =
+                PostgresQrSessionSubscriptionAdapter.decodePayload(payloads.getFirst()).orElseThrow();
+        assertEquals(List.of("old-1"), first.unsubscribe());
+        assertEquals(List.of(), first.subscribe());
+        assertEquals("kiosk|1", first.owner());
+        assertEquals(subscribe.subList(0, PostgresQrSessionSubscriptionAdapter.IDS_PER_NOTIFICATION),
+                PostgresQrSessionSubscriptionAdapter.decodePayload(payloads.get(1)).orElseThrow().subscribe());
+    }
+
+    @Test
+    void testHandle_onlyTheHoldingNodeApplies() {
+        String payload = PostgresQrSessionSubscriptionAdapter
+                .encodePayloads("session-1", "kiosk-1", List.of("token-1"), List.of())
+                .getFirst();
+
+        adapter.handle(payload);
+        verify(qrScanPushService, never()).updateSubscriptions(any(), any(), any(), any());
+
+        when(qrScanPushService.holdsSession("session-1")).thenReturn(true);
+        adapter.handle(payload);
+        verify(qrScanPushService).updateSubscriptions("session-1", "kiosk-1", List.of("token-1"), List.of());
+    }
+
+    @Test
+    void testHandle_rejectedChangeDoesNotEscapeTheListener() {
+        when(qrScanPushService.holdsSession("session-1")).thenReturn(true);
+        doThrow(new NotFoundException("QR stream session not found"))
+                .when(qrScanPushService).updateSubscriptions(any(), any(), any(), any());
+
+        assertDoesNotThrow(() -> adapter.handle(PostgresQrSessionSubscriptionAdapter
+                .encodePayloads("session-1", "kiosk-2", List.of("token-1"), List.of())
+                .getFirst()));
+        assertTrue(PostgresQrSessionSubscriptionAdapter.decodePayload("missing-fields").isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import be.ahm282.QuickClock.application.dto.response.UserSummaryResponse;
+import be.ahm282.QuickClock.application.ports.out.UserRepositoryPort;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.EmployeeBoardProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class KioskBoardPushServiceTest {
+
+    private final UserRepositoryPort userRepositoryPort = mock(UserRepositoryPort.class);
+    private final SseConnection connection = mock(SseConnection.class);
+    private KioskBoardPushService service;
+
+    @BeforeEach
+    void setUp() {
+        SseSendPipeline sendPipeline = mock(SseSendPipeline.class);
+        when(sendPipeline.open(any(), any())).thenReturn(connection);
+        service = new KioskBoardPushService(sendPipeline, userRepositoryPort, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testPublishClockChange_readsOnlyTheBoardProfile() {
+        UUID publicId = UUID.randomUUID();
+        Instant at = Instant.ofEpochSecond(1_700_000_000L);
+        when(userRepositoryPort.findActiveEmployeeBoardProfile(42L))
+                .thenReturn(Optional.of(new EmployeeBoardProfile(publicId, "Sara", "سارة")));
+        service.subscribe(List::of);
+
+        service.publishClockChange(42L, ClockRecordType.IN, at);
+
+        verify(connection).send("employee", new UserSummaryResponse(publicId, "Sara", "سارة", "IN", at));
+        verify(userRepositoryPort, never()).findById(anyLong());
+    }
+
+    @Test
+    void testPublishClockChange_skipsTheLookupWithoutKiosks() {
+        service.publishClockChange(42L, ClockRecordType.OUT, Instant.now());
+
+        verifyNoInteractions(userRepositoryPort);
+    }
+}
@@ -0,0 +1,164 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import be.ahm282.QuickClock.application.dto.response.QrScanStatusResponse;
+import be.ahm282.QuickClock.application.dto.response.QrStreamSessionResponse;
+import be.ahm282.QuickClock.domain.exception.NotFoundException;
+import be.ahm282.QuickClock.domain.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QrScanPushServiceTest {
+
+    private static final QrScanStatusResponse SCAN =
+            new QrScanStatusResponse("token-1", 42L, "IN", Instant.ofEpochSecond(1_700_000_000L));
+
+    private final List<SseConnection> opened = new ArrayList<>();
+    private final Map<SseConnection, Consumer<SseConnection>> onClose = new HashMap<>();
+    private QrScanPushService service;
+
+    @BeforeEach
+    void setUp() {
+        SseSendPipeline sendPipeline = mock(SseSendPipeline.class);
+        when(sendPipeline.open(any(), any())).thenAnswer(invocation -> {
+            SseConnection connection = mock(SseConnection.class);
+            opened.add(connection);
+            onClose.put(connection, invocation.getArgument(1));
+            return connection;
+        });
+        service = new QrScanPushService(sendPipeline, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testUpdateSubscriptions_rejectsOtherOwnerAndUnknownSession() {
+        String sessionId = openSession("kiosk-1");
+
+        assertThrows(NotFoundException.class,
+                () -> service.updateSubscriptions(sessionId, "kiosk-2", List.of("token-1"), List.of()));
+        assertThrows(NotFoundException.class,
+                () -> service.updateSubscriptions("no-such-session", "kiosk-1", List.of("token-1"), List.of()));
+    }
+
+    @Test
+    void testNotifyScanned_deliversOnSubscribedSessionOnlyOnce() {
+        String sessionId = openSession("kiosk-1");
+        SseConnection connection = opened.getLast();
+        service.updateSubscriptions(sessionId, "kiosk-1", List.of("token-1"), List.of());
+
+        service.notifyScanned("token-1", SCAN);
+        service.notifyScanned("token-1", SCAN);
+
+        verify(connection, times(1)).send("scanned", SCAN);
+    }
+
+    @Test
+    void testNotifyScanned_perTokenStreamTakesPrecedence() {
+        String sessionId = openSession("kiosk-1");
+        SseConnection sessionConnection = opened.getLast();
+        service.updateSubscriptions(sessionId, "kiosk-1", List.of("token-1"), List.of());
+        service.subscribe("token-1");
+        SseConnection tokenConnection = opened.getLast();
+
+        service.notifyScanned("token-1", SCAN);
+
+        verify(tokenConnection).sendAndComplete("scanned", SCAN);
+        verify(sessionConnection, never()).send(eq("scanned"), any());
+    }
+
+    @Test
+    void testUpdateSubscriptions_tokenMovesBetweenSessions() {
+        String first = openSession("kiosk-1");
+        SseConnection firstConnection = opened.getLast();
+        String second = openSession("kiosk-1");
+        SseConnection secondConnection = opened.getLast();
+
+        service.updateSubscriptions(first, "kiosk-1", List.of("token-1"), List.of());
+        service.updateSubscriptions(second, "kiosk-1", List.of("token-1"), List.of());
+        // The first session no longer owns the token, so its late unsubscribe must not drop the move
+        service.updateSubscriptions(first, "kiosk-1", List.of(), List.of("token-1"));
+
+        service.notifyScanned("token-1", SCAN);
+
+        verify(secondConnection).send("scanned", SCAN);
+        verify(firstConnection, never()).send(eq("scanned"), any());
+    }
+
+    @Test
+    void testUpdateSubscriptions_enforcesTokenCapAfterUnsubscribing() {
+        String sessionId = openSession("kiosk-1");
+        List<String> full = tokenIds(0, QrScanPushService.MAX_TOKENS_PER_SESSION);
+        service.updateSubscriptions(sessionId, "kiosk-1", full, List.of());
+
+        assertThrows(ValidationException.class,
+                () -> service.updateSubscriptions(sessionId, "kiosk-1", List.of("one-too-many"), List.of()));
+
+        // Rotating within the cap is fine: unsubscriptions are applied first
+        assertDoesNotThrow(() -> service.updateSubscriptions(sessionId, "kiosk-1",
+                List.of("rotated-in"), List.of(full.getFirst())));
+    }
+
+    @Test
+    void testCloseSession_dropsSubscriptionsAndRejectsUpdates() {
+        String sessionId = openSession("kiosk-1");
+        SseConnection connection = opened.getLast();
+        service.updateSubscriptions(sessionId, "kiosk-1", List.of("token-1"), List.of());
+
+        onClose.get(connection).accept(connection);
+
+        service.notifyScanned("token-1", SCAN);
+        verify(connection, never()).send(eq("scanned"), any());
+        assertThrows(NotFoundException.class,
+                () -> service.updateSubscriptions(sessionId, "kiosk-1", List.of("token-2"), List.of()));
+    }
+
+    @Test
+    void testUpdateSubscriptions_concurrentMovesLeaveNoSubscriptionBehind() throws Exception {
+        String first = openSession("kiosk-1");
+        SseConnection firstConnection = opened.getLast();
+        String second = openSession("kiosk-1");
+        SseConnection secondConnection = opened.getLast();
+
+        Thread a = Thread.ofPlatform().start(() -> moveRepeatedly(first));
+        Thread b = Thread.ofPlatform().start(() -> moveRepeatedly(second));
+        a.join();
+        b.join();
+
+        // Whichever session won, closing both must release the token
+        onClose.get(firstConnection).accept(firstConnection);
+        onClose.get(secondConnection).accept(secondConnection);
+        service.notifyScanned("token-1", SCAN);
+
+        verify(firstConnection, never()).send(eq("scanned"), any());
+        verify(secondConnection, never()).send(eq("scanned"), any());
+    }
+
+    private void moveRepeatedly(String sessionId) {
+        for (int i = 0; i < 10_000; i++) {
+            service.updateSubscriptions(sessionId, "kiosk-1", List.of("token-1"), List.of());
+        }
+    }
+
+    private String openSession(String owner) {
+        service.openSession(owner);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(opened.getLast()).send(eq("session"), event.capture());
+        return ((QrStreamSessionResponse) event.getValue()).sessionId();
+    }
+
+    private static List<String> tokenIds(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "token-" + i).toList();
+    }
+}
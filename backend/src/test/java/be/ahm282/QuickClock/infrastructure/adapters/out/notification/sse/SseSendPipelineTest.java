@@ -0,0 +1,182 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.notification.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SseSendPipelineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SseSendPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new SseSendPipeline(meterRegistry, 50, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void testSendAndComplete_writesEventThenCompletesOffTheCallerThread() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        AtomicInteger closes = new AtomicInteger();
+        SseConnection connection = pipeline.open(emitter, c -> closes.incrementAndGet());
+
+        connection.sendAndComplete("scanned", "payload");
+
+        verify(emitter, timeout(1000)).complete();
+        verify(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    void testStalledClient_blocksOnlyItsOwnConnectionAndIsClosedAfterTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter stalled = mock(SseEmitter.class);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(stalled).send(any(SseEmitter.SseEventBuilder.class));
+        SseEmitter healthy = mock(SseEmitter.class);
+
+        SseConnection stalledConnection = pipeline.open(stalled, c -> {});
+        SseConnection healthyConnection = pipeline.open(healthy, c -> {});
+
+        stalledConnection.send("employee", "a");
+        healthyConnection.send("employee", "a");
+        verify(healthy, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+
+        Thread.sleep(100);
+        pipeline.expireStalledSends();
+
+        verify(stalled, timeout(1000)).completeWithError(any(SseSendPipeline.SseSendTimeoutException.class));
+        assertEquals(1.0, meterRegistry.get("quickclock.sse.closed").tag("reason", "timeout").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void testHeartbeat_skippedWhileConnectionIsBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter emitter = mock(SseEmitter.class);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        SseConnection connection = pipeline.open(emitter, c -> {});
+
+        connection.send("employee", "a");
+        connection.sendHeartbeat();
+        connection.sendHeartbeat();
+        release.countDown();
+
+        Thread.sleep(100);
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitter, never()).completeWithError(any());
+    }
+
+    @Test
+    void testHeldConnection_buffersEventsUntilReleased() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseConnection connection = pipeline.open(emitter, c -> {});
+
+        connection.hold();
+        connection.send("employee", "delta");
+        Thread.sleep(50);
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+
+        connection.releaseWith("snapshot", "board");
+
+        verify(emitter, timeout(1000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void testStallSweep_returnsWhileTheStalledWriteStillHoldsTheEmitter() throws Exception {
+        BlockingSseEmitter emitter = new BlockingSseEmitter();
+        AtomicInteger closes = new AtomicInteger();
+        SseConnection connection = pipeline.open(emitter, c -> closes.incrementAndGet());
+
+        connection.send("employee", "a");
+        assertTrue(emitter.sending.await(1, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        long start = System.nanoTime();
+        pipeline.expireStalledSends();
+        long sweepMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The connection is closed right away, but completing the emitter waits for the write
+        assertTrue(sweepMillis < 500, "stall sweep blocked for " + sweepMillis + " ms");
+        assertEquals(1, closes.get());
+        assertFalse(emitter.completed.await(100, TimeUnit.MILLISECONDS));
+
+        emitter.release.countDown();
+        assertTrue(emitter.completed.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testOverflow_doesNotBlockThePublisherOnAStalledWrite() throws Exception {
+        BlockingSseEmitter emitter = new BlockingSseEmitter();
+        SseConnection connection = pipeline.open(emitter, c -> {});
+
+        connection.send("employee", "a");
+        assertTrue(emitter.sending.await(1, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        connection.send("employee", "b");
+        connection.send("employee", "c");
+        connection.send("employee", "d"); // over the limit of 2 pending events
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(publishMillis < 500, "publisher blocked for " + publishMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("quickclock.sse.closed").tag("reason", "overflow").counter().count());
+
+        emitter.release.countDown();
+        assertTrue(emitter.completed.await(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * A real emitter whose write blocks until released. Like ResponseBodyEmitter, send and
+     * completeWithError share one lock, so completing waits for the write in progress.
+     */
+    private static final class BlockingSseEmitter extends SseEmitter {
+        private final Object writeLock = new Object();
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            synchronized (writeLock) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            synchronized (writeLock) {
+                super.completeWithError(ex);
+                completed.countDown();
+            }
+        }
+    }
+}
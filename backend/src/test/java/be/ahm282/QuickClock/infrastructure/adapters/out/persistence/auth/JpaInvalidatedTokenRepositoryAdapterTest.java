@@ -0,0 +1,67 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.auth;
+
+import be.ahm282.QuickClock.domain.model.InvalidatedToken;
+import be.ahm282.QuickClock.infrastructure.mapper.InvalidatedTokenMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JpaInvalidatedTokenRepositoryAdapterTest {
+
+    private RevokedTokenCache cache;
+    private JpaInvalidatedTokenRepositoryAdapter adapter;
+    private final Instant expiry = Instant.now().plusSeconds(600);
+
+    @BeforeEach
+    void setUp() {
+        JpaInvalidatedTokenRepository jpa = mock(JpaInvalidatedTokenRepository.class);
+        cache = new RevokedTokenCache(jpa, new SimpleMeterRegistry());
+        adapter = new JpaInvalidatedTokenRepositoryAdapter(jpa, new InvalidatedTokenMapper(), cache);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testSave_revokesOnlyOnceCommitted() {
+        adapter.save(new InvalidatedToken("jti-1", 1L, expiry));
+        assertFalse(adapter.isInvalidated("jti-1"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(adapter.isInvalidated("jti-1"));
+    }
+
+    @Test
+    void testSave_rolledBackRevocationNeverReachesTheCache() {
+        adapter.save(new InvalidatedToken("jti-1", 1L, expiry));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(adapter.isInvalidated("jti-1"));
+    }
+
+    @Test
+    void testDeleteByUserId_keepsRevocationsUntilCommitted() {
+        cache.add("jti-1", 1L, expiry);
+
+        adapter.deleteByUserId(1L);
+        assertTrue(adapter.isInvalidated("jti-1"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(adapter.isInvalidated("jti-1"));
+    }
+}
@@ -0,0 +1,83 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.auth;
+
+import be.ahm282.QuickClock.infrastructure.entity.InvalidatedTokenEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RevokedTokenCacheTest {
+
+    private JpaInvalidatedTokenRepository repository;
+    private RevokedTokenCache cache;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(JpaInvalidatedTokenRepository.class);
+        cache = new RevokedTokenCache(repository, new SimpleMeterRegistry());
+        now = Instant.now();
+    }
+
+    @Test
+    void testHydrate_loadsUnexpiredRevocationsFromTable() {
+        when(repository.findAllByExpiryTimeAfter(any()))
+                .thenReturn(List.of(new InvalidatedTokenEntity("jti-1", 1L, now.plus(Duration.ofMinutes(5)))));
+
+        cache.hydrate();
+
+        assertTrue(cache.isRevoked("jti-1", now));
+        assertFalse(cache.isRevoked("jti-2", now));
+    }
+
+    @Test
+    void testIsRevoked_falseOnceTheTokenHasExpired() {
+        cache.add("jti-1", 1L, now.plusSeconds(60));
+
+        assertTrue(cache.isRevoked("jti-1", now));
+        assertFalse(cache.isRevoked("jti-1", now.plusSeconds(61)));
+    }
+
+    @Test
+    void testReload_tableIsTheOnlySource() {
+        when(repository.findAllByExpiryTimeAfter(any())).thenReturn(List.of());
+        cache.add("jti-gone", 1L, now.plusSeconds(600));
+
+        cache.reload();
+
+        assertFalse(cache.isRevoked("jti-gone", now));
+    }
+
+    @Test
+    void testRemoveByUserId_onlyDropsThatUsersRevocations() {
+        cache.add("jti-a", 1L, now.plusSeconds(600));
+        cache.add("jti-b", 2L, now.plusSeconds(600));
+
+        cache.removeByUserId(1L);
+
+        assertFalse(cache.isRevoked("jti-a", now));
+        assertTrue(cache.isRevoked("jti-b", now));
+    }
+
+    @Test
+    void testBloomFilter_neverRejectsAnAddedValueAndRarelyAcceptsOthers() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("added-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("added-" + i));
+            if (filter.mightContain("other-" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < 50, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,59 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockStateCacheTest {
+
+    private final ClockStateCache cache = new ClockStateCache(new SimpleMeterRegistry(), 100);
+
+    @Test
+    void testGet_cachesLoadedRecord() {
+        AtomicInteger loads = new AtomicInteger();
+        ClockRecord latest = record(1L, ClockRecordType.IN, 1_000);
+
+        cache.get(7L, id -> { loads.incrementAndGet(); return Optional.of(latest); });
+        Optional<ClockRecord> second = cache.get(7L, id -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertEquals(1, loads.get());
+        assertSame(latest, second.orElseThrow());
+    }
+
+    @Test
+    void testGet_loadRacingCommitIsNotCached() {
+        ClockRecord stale = record(1L, ClockRecordType.IN, 1_000);
+        ClockRecord committed = record(2L, ClockRecordType.OUT, 2_000);
+
+        // The commit lands after the load read the old latest record, but before it is stored
+        Optional<ClockRecord> raced = cache.get(7L, id -> {
+            cache.recordAfterCommit(committed);
+            return Optional.of(stale);
+        });
+        assertSame(stale, raced.orElseThrow());
+
+        Optional<ClockRecord> reloaded = cache.get(7L, id -> Optional.of(committed));
+        assertSame(committed, reloaded.orElseThrow());
+    }
+
+    @Test
+    void testRecord_olderBackDatedRecordKeepsCachedLatest() {
+        ClockRecord latest = record(2L, ClockRecordType.OUT, 2_000);
+        cache.get(7L, id -> Optional.of(latest));
+
+        cache.recordAfterCommit(record(3L, ClockRecordType.IN, 500));
+
+        assertSame(latest, cache.get(7L, id -> Optional.empty()).orElseThrow());
+    }
+
+    private static ClockRecord record(Long id, ClockRecordType type, long epochSecond) {
+        return new ClockRecord(id, 7L, type, Instant.ofEpochSecond(epochSecond), null);
+    }
+}
@@ -0,0 +1,53 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.domain.model.ClockStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the native insert-if-absent statements against H2 in PostgreSQL mode, as the dev profile does.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:insert-if-absent;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class InsertIfAbsentH2Test {
+
+    @Autowired
+    private JpaUserClockStateRepository clockStateRepository;
+
+    @Autowired
+    private JpaDailyWorkSummaryRepository dailyWorkSummaryRepository;
+
+    @Test
+    void testUserClockState_insertsOnceThenDoesNothing() {
+        Instant first = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        assertEquals(1, clockStateRepository.insertIfAbsent(1L, ClockRecordType.IN.name(), first));
+        assertEquals(0, clockStateRepository.insertIfAbsent(1L, ClockRecordType.OUT.name(), first.plusSeconds(60)));
+
+        ClockStatus status = clockStateRepository.findStatusByUserId(1L).orElseThrow();
+        assertEquals(ClockRecordType.IN, status.lastType());
+    }
+
+    @Test
+    void testDailyWorkSummary_insertsOncePerDayThenDoesNothing() {
+        LocalDate day = LocalDate.of(2025, 12, 22);
+
+        assertEquals(1, dailyWorkSummaryRepository.insertIfAbsent(1L, day, 3600, false));
+        assertEquals(0, dailyWorkSummaryRepository.insertIfAbsent(1L, day, 7200, true));
+        assertEquals(1, dailyWorkSummaryRepository.insertIfAbsent(1L, day.plusDays(1), 0, false));
+
+        assertEquals(3600, dailyWorkSummaryRepository
+                .findAllByUserIdAndWorkDateBetweenOrderByWorkDateAsc(1L, day, day)
+                .getFirst()
+                .getSecondsWorked());
+    }
+}
@@ -0,0 +1,96 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.clock;
+
+import be.ahm282.QuickClock.domain.model.ClockRecord;
+import be.ahm282.QuickClock.domain.model.ClockRecordType;
+import be.ahm282.QuickClock.infrastructure.entity.ClockRecordEntity;
+import be.ahm282.QuickClock.infrastructure.mapper.ClockRecordEntityMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaClockRecordRepositoryAdapterTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Instant NOW = Instant.parse("2026-03-02T08:00:00Z");
+
+    @Mock
+    private JpaClockRecordRepository repository;
+
+    @Mock
+    private JpaUserClockStateRepository clockStateRepository;
+
+    private JpaClockRecordRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new JpaClockRecordRepositoryAdapter(repository, clockStateRepository,
+                new ClockRecordEntityMapper(), new ClockStateCache(new SimpleMeterRegistry(), 100));
+    }
+
+    @Test
+    void testSaveTransition_alternatingClockIsOneUpdateAndOneInsert() {
+        when(clockStateRepository.advanceIfTypeDiffers(USER_ID, ClockRecordType.OUT, NOW)).thenReturn(1);
+        when(repository.save(any())).thenAnswer(invocation -> withId(invocation.getArgument(0), 11L));
+
+        Optional<ClockRecord> saved = adapter.saveTransition(record(ClockRecordType.OUT));
+
+        assertEquals(11L, saved.orElseThrow().getId());
+        verify(clockStateRepository, never()).insertIfAbsent(any(), any(), any());
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void testSaveTransition_doubleTapInsertsNothing() {
+        when(clockStateRepository.advanceIfTypeDiffers(USER_ID, ClockRecordType.IN, NOW)).thenReturn(0);
+        when(clockStateRepository.insertIfAbsent(USER_ID, "IN", NOW)).thenReturn(0);
+
+        assertTrue(adapter.saveTransition(record(ClockRecordType.IN)).isEmpty());
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testSaveTransition_firstClockCreatesStateRow() {
+        when(clockStateRepository.advanceIfTypeDiffers(USER_ID, ClockRecordType.IN, NOW)).thenReturn(0);
+        when(clockStateRepository.insertIfAbsent(USER_ID, "IN", NOW)).thenReturn(1);
+        when(repository.findTopByUserIdOrderByRecordedAtDesc(USER_ID)).thenReturn(Optional.empty());
+        when(repository.save(any())).thenAnswer(invocation -> withId(invocation.getArgument(0), 1L));
+
+        assertTrue(adapter.saveTransition(record(ClockRecordType.IN)).isPresent());
+    }
+
+    @Test
+    void testSaveTransition_legacyHistoryWithSameTypeIsRejected() {
+        ClockRecordEntity previous = withId(new ClockRecordEntity(), 3L);
+        previous.setUserId(USER_ID);
+        previous.setType(ClockRecordType.IN);
+        previous.setRecordedAt(NOW.minusSeconds(3600));
+
+        when(clockStateRepository.advanceIfTypeDiffers(USER_ID, ClockRecordType.IN, NOW)).thenReturn(0);
+        when(clockStateRepository.insertIfAbsent(USER_ID, "IN", NOW)).thenReturn(1);
+        when(repository.findTopByUserIdOrderByRecordedAtDesc(USER_ID)).thenReturn(Optional.of(previous));
+
+        assertTrue(adapter.saveTransition(record(ClockRecordType.IN)).isEmpty());
+        verify(repository, never()).save(any());
+    }
+
+    private static ClockRecord record(ClockRecordType type) {
+        return new ClockRecord(null, USER_ID, type, NOW, null);
+    }
+
+    private static ClockRecordEntity withId(ClockRecordEntity entity, Long id) {
+        entity.setId(id);
+        return entity;
+    }
+}
@@ -0,0 +1,80 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.replay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresTokenReplayStoreTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long FORGET_AT = NOW + 60;
+
+    private JdbcTemplate jdbcTemplate;
+    private PostgresTokenReplayStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        store = new PostgresTokenReplayStore(jdbcTemplate, new SimpleMeterRegistry(), 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testMarkUsed_firstUseInsertsOnceThenReplayIsAnsweredLocally() {
+        when(jdbcTemplate.update(anyString(), eq("token-1"), eq(FORGET_AT))).thenReturn(1);
+
+        assertTrue(store.markUsed("token-1", FORGET_AT, NOW));
+        assertFalse(store.markUsed("token-1", FORGET_AT, NOW));
+
+        verify(jdbcTemplate, times(1)).update(anyString(), eq("token-1"), eq(FORGET_AT));
+    }
+
+    @Test
+    void testMarkUsed_idUsedOnAnotherNodeIsRejected() {
+        when(jdbcTemplate.update(anyString(), eq("token-1"), eq(FORGET_AT))).thenReturn(0);
+
+        assertFalse(store.markUsed("token-1", FORGET_AT, NOW));
+    }
+
+    @Test
+    void testMarkUsed_rolledBackUseCanBeRetried() {
+        when(jdbcTemplate.update(anyString(), eq("token-1"), eq(FORGET_AT))).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(store.markUsed("token-1", FORGET_AT, NOW));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // The rolled back insert released the id in the database, and this node did not burn it either
+        assertTrue(store.markUsed("token-1", FORGET_AT, NOW));
+        verify(jdbcTemplate, times(2)).update(anyString(), eq("token-1"), eq(FORGET_AT));
+    }
+
+    @Test
+    void testMarkUsed_committedUseIsRememberedLocally() {
+        when(jdbcTemplate.update(anyString(), eq("token-1"), eq(FORGET_AT))).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(store.markUsed("token-1", FORGET_AT, NOW));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(store.markUsed("token-1", FORGET_AT, NOW));
+        verify(jdbcTemplate, times(1)).update(anyString(), eq("token-1"), eq(FORGET_AT));
+    }
+}
@@ -0,0 +1,78 @@
+package be.ahm282.QuickClock.infrastructure.adapters.out.persistence.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSecretCacheTest {
+
+    private final UserSecretCache cache = new UserSecretCache(new SimpleMeterRegistry(), 2);
+    private final List<Long> loads = new ArrayList<>();
+    private final Function<Long, Optional<String>> loader = id -> {
+        loads.add(id);
+        return Optional.of("secret-" + id);
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGet_evictsLeastRecentlyUsedUser() {
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);  // 1 is now the most recently used
+        cache.get(3L, loader);  // pushes out 2
+
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        assertEquals(List.of(1L, 2L, 3L, 2L), loads);
+    }
+
+    @Test
+    void testGet_unknownUserIsNotCached() {
+        cache.get(9L, id -> Optional.empty());
+
+        assertEquals(Optional.of("secret-9"), cache.get(9L, loader));
+        assertEquals(List.of(9L), loads);
+    }
+
+    @Test
+    void testEvictOnSave_evictsImmediatelyWithoutTransaction() {
+        cache.get(1L, loader);
+
+        cache.evictOnSave(1L);
+        cache.get(1L, loader);
+
+        assertEquals(List.of(1L, 1L), loads);
+    }
+
+    @Test
+    void testEvictOnSave_evictsAgainAfterCommit() {
+        cache.get(1L, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictOnSave(1L);
+        // A load racing the uncommitted save still sees the old secret and caches it
+        cache.get(1L, id -> Optional.of("old-secret"));
+        assertEquals(Optional.of("old-secret"), cache.get(1L, loader));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(Optional.of("secret-1"), cache.get(1L, loader));
+    }
+}
@@ -0,0 +1,27 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BcryptCostTest {
+
+    private static final String COST_12 = "$2a$12$abcdefghijklmnopqrstuuXr2dLxPjNK0f8U1eDPRSv5H1FPoxDcy";
+    private static final String COST_10 = "$2a$10$abcdefghijklmnopqrstuuO1FuHhIUpV7w4JxwyKZ9mmSF1mj8mRa";
+
+    private final BcryptCost cost = new BcryptCost(12);
+
+    @Test
+    void testPrefixOnlyUpgrade_legacyHashAtOrAboveTheCost() {
+        assertEquals(Optional.of("{bcrypt}" + COST_12), cost.prefixOnlyUpgrade(COST_12));
+    }
+
+    @Test
+    void testPrefixOnlyUpgrade_notForWeakerPrefixedOrUnreadableHashes() {
+        assertTrue(cost.prefixOnlyUpgrade(COST_10).isEmpty());
+        assertTrue(cost.prefixOnlyUpgrade("{bcrypt}" + COST_12).isEmpty());
+        assertTrue(cost.prefixOnlyUpgrade("not-a-bcrypt-hash").isEmpty());
+    }
+}
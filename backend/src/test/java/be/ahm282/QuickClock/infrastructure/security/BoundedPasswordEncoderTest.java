@@ -0,0 +1,78 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import be.ahm282.QuickClock.domain.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void testMatches_delegatesOnHashingPoolAndRecordsTime() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        encoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, 1000);
+
+        assertTrue(encoder.matches("secret", "hash"));
+        assertEquals(1, meterRegistry.get("quickclock.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testSaturatedPool_rejectsImmediatelyWithServiceBusy() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, 5000);
+
+        // One hash running, one queued: the pool is full
+        Thread.ofVirtual().start(() -> encoder.encode("a"));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Thread.ofVirtual().start(() -> encoder.encode("b"));
+        while (meterRegistry.get("quickclock.password.hash.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertThrows(ServiceBusyException.class, () -> encoder.encode("c"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1.0, meterRegistry.get("quickclock.password.hash.rejected").counter().count());
+    }
+
+    @Test
+    void testWaitingTooLong_givesUpWithServiceBusy() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 4, 100);
+
+        Thread.ofVirtual().start(() -> encoder.encode("a"));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        assertThrows(ServiceBusyException.class, () -> encoder.encode("b"));
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.PrintWriter;
 import java.util.List;
-import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,7 +43,7 @@ class JwtAuthFilterTest {
         SecurityContextHolder.clearContext();
 
         // By default, no tokens are invalidated
-        when(invalidatedTokenRepository.findByJti(any())).thenReturn(Optional.empty());
+        when(invalidatedTokenRepository.isInvalidated(any())).thenReturn(false);
     }
 
     // ---------------------------------------------------------
@@ -85,6 +84,7 @@ class JwtAuthFilterTest {
         Claims claims = mock(Claims.class);
         when(claims.getId()).thenReturn("jti-123");
         when(claims.getSubject()).thenReturn("john");
+        when(claims.get("userId", Long.class)).thenReturn(42L);
         when(claims.get("type", String.class)).thenReturn("access");
         when(claims.get("roles", List.class)).thenReturn(List.of("USER"));
 
@@ -94,11 +94,40 @@ class JwtAuthFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
-        assertEquals("john", SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class,
+                SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals("john", principal.getName());
+        assertEquals(Long.valueOf(42L), principal.userId());
+        assertEquals("jti-123", principal.jti());
+        assertEquals(List.of("USER"), principal.roles());
+
+        // The token is verified exactly once per request
+        verify(jwtTokenService, times(1)).parseClaims("valid");
 
         verify(filterChain).doFilter(request, response);
     }
 
+    // ---------------------------------------------------------
+    // Revoked access token → 401, without touching the database
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectInvalidatedAccessToken() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer revoked");
+
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-revoked");
+        when(claims.get("type", String.class)).thenReturn("access");
+        when(jwtTokenService.parseClaims("revoked")).thenReturn(claims);
+        when(invalidatedTokenRepository.isInvalidated("jti-revoked")).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(401);
+        verify(invalidatedTokenRepository, never()).findByJti(any());
+        verify(filterChain, never()).doFilter(any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
     // ---------------------------------------------------------
     // Non-access tokens (refresh) → rejected with 401
     // ---------------------------------------------------------
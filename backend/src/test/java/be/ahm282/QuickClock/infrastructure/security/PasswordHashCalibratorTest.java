@@ -0,0 +1,25 @@
+package be.ahm282.QuickClock.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashCalibratorTest {
+
+    @Test
+    void testChooseCost_picksHighestCostWithinTarget() {
+        // 4 ms at cost 8 → 64 ms at 12, 128 ms at 13, 256 ms at 14
+        assertEquals(13, PasswordHashCalibrator.chooseCost(4.0, 8, 250, 10, 16));
+        assertEquals(14, PasswordHashCalibrator.chooseCost(4.0, 8, 256, 10, 16));
+    }
+
+    @Test
+    void testChooseCost_neverGoesBelowMinimumOnSlowHardware() {
+        assertEquals(10, PasswordHashCalibrator.chooseCost(500.0, 8, 250, 10, 16));
+    }
+
+    @Test
+    void testChooseCost_capsAtMaximumOnFastHardware() {
+        assertEquals(16, PasswordHashCalibrator.chooseCost(0.01, 8, 250, 10, 16));
+    }
+}
@@ -0,0 +1,78 @@
+package be.ahm282.QuickClock.infrastructure.security.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MacPoolTest {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] DATA = "user|clock-in|1700000000".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testDoFinal_reusedInstancesNeverMixSecrets() throws Exception {
+        MacPool pool = new MacPool(ALGORITHM, 16);
+
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(expected("secret-a", DATA), pool.doFinal("secret-a", DATA));
+            assertArrayEquals(expected("secret-b", DATA), pool.doFinal("secret-b", DATA));
+        }
+    }
+
+    @Test
+    void testDoFinal_honoursOffsetAndLength() throws Exception {
+        MacPool pool = new MacPool(ALGORITHM, 16);
+        byte[] framed = new byte[DATA.length + 4];
+        System.arraycopy(DATA, 0, framed, 2, DATA.length);
+
+        assertArrayEquals(expected("secret-a", DATA), pool.doFinal("secret-a", framed, 2, DATA.length));
+    }
+
+    @Test
+    void testDoFinal_correctAfterKeyIsEvicted() throws Exception {
+        MacPool pool = new MacPool(ALGORITHM, 1);
+
+        pool.doFinal("secret-a", DATA);
+        pool.doFinal("secret-b", DATA);  // evicts secret-a's instances
+
+        assertArrayEquals(expected("secret-a", DATA), pool.doFinal("secret-a", DATA));
+    }
+
+    @Test
+    void testDoFinal_concurrentCallersGetCorrectResults() throws Exception {
+        MacPool pool = new MacPool(ALGORITHM, 16);
+        byte[] expectedA = expected("secret-a", DATA);
+        byte[] expectedB = expected("secret-b", DATA);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String key = i % 2 == 0 ? "secret-a" : "secret-b";
+                byte[] expected = i % 2 == 0 ? expectedA : expectedB;
+                results.add(executor.submit(() -> Arrays.equals(expected, pool.doFinal(key, DATA))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] expected(String key, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        return mac.doFinal(data);
+    }
+}
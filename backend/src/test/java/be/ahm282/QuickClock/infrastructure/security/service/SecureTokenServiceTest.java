@@ -0,0 +1,82 @@
+package be.ahm282.QuickClock.infrastructure.security.service;
+
+import be.ahm282.QuickClock.domain.model.TokenValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecureTokenServiceTest {
+
+    private static final String SECRET = "test-secret-with-enough-entropy";
+
+    private final SecureTokenService v2Service = newService(2);
+    private final SecureTokenService v1Service = newService(1);
+
+    @Test
+    void testV2_roundTrip() {
+        String token = v2Service.generateToken(42L, SECRET, "clock-in", null);
+
+        TokenValidationResult result = v2Service.validate(token, SECRET, "clock-in", null);
+
+        assertEquals(42L, result.userId());
+        assertEquals("clock-in", result.purpose());
+        assertNull(result.kioskId());
+        assertEquals(30, result.expiresAt().getEpochSecond() - result.issuedAt().getEpochSecond());
+        assertEquals(result.tokenId(), v2Service.peekTokenId(token));
+        assertEquals(42L, v2Service.peekUserId(token));
+    }
+
+    @Test
+    void testV2_isMuchSmallerThanV1() {
+        String v1 = v1Service.generateToken(42L, SECRET, "clock-out", null);
+        String v2 = v2Service.generateToken(42L, SECRET, "clock-out", null);
+
+        assertTrue(v2.length() * 2 < v1.length(), "v2 token should be less than half the size of v1");
+    }
+
+    @Test
+    void testV1_stillValidatedDuringRollout() {
+        String token = v1Service.generateToken(7L, SECRET, "clock-out", null);
+
+        TokenValidationResult result = v2Service.validate(token, SECRET, "clock-out", null);
+
+        assertEquals(7L, result.userId());
+        assertEquals(7L, v2Service.peekUserId(token));
+        assertEquals(result.tokenId(), v2Service.peekTokenId(token));
+    }
+
+    @Test
+    void testV2_rejectsTamperingWrongSecretAndPurpose() {
+        String token = v2Service.generateToken(42L, SECRET, "clock-in", null);
+        byte[] raw = Base64.getUrlDecoder().decode(token);
+        raw[2] ^= 0x01; // flip a bit of the user id
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        assertThrows(IllegalArgumentException.class, () -> v2Service.validate(tampered, SECRET, "clock-in", null));
+        assertThrows(IllegalArgumentException.class, () -> v2Service.validate(token, "other-secret", "clock-in", null));
+        assertThrows(IllegalArgumentException.class, () -> v2Service.validate(token, SECRET, "clock-out", null));
+    }
+
+    @Test
+    void testV2_singleUse() {
+        String token = v2Service.generateToken(42L, SECRET, "clock-in", null);
+
+        v2Service.validate(token, SECRET, "clock-in", null);
+
+        assertThrows(IllegalArgumentException.class, () -> v2Service.validate(token, SECRET, "clock-in", null));
+    }
+
+    @Test
+    void testMalformedTokens_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> v2Service.validate("AgE", SECRET, null, null));
+        assertThrows(IllegalArgumentException.class, () -> v2Service.peekUserId("Ag"));
+        assertThrows(IllegalArgumentException.class, () -> v2Service.validate("", SECRET, null, null));
+    }
+
+    private static SecureTokenService newService(int generatedVersion) {
+        return new SecureTokenService(new TokenReplayCache(new SimpleMeterRegistry(), 1000), 100, generatedVersion);
+    }
+}
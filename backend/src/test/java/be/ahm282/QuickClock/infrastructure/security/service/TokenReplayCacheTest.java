@@ -0,0 +1,53 @@
+package be.ahm282.QuickClock.infrastructure.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenReplayCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testReplayRejectedUntilForgetSecond() {
+        TokenReplayCache cache = new TokenReplayCache(meterRegistry, 100);
+        long now = 1_000_000;
+
+        assertTrue(cache.markUsed("a", now + 36, now));
+        assertFalse(cache.markUsed("a", now + 36, now + 35));
+        assertEquals(1.0, meterRegistry.get("quickclock.qr.replay.rejected").tag("reason", "replay").counter().count());
+
+        // Once its second has passed the id is evicted and counted
+        assertTrue(cache.markUsed("b", now + 72, now + 36));
+        assertEquals(1, cache.size());
+        assertEquals(1.0, meterRegistry.get("quickclock.qr.replay.evicted").counter().count());
+    }
+
+    @Test
+    void testLongIdlePeriodDrainsEverything() {
+        TokenReplayCache cache = new TokenReplayCache(meterRegistry, 100);
+        long now = 1_000_000;
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cache.markUsed("id-" + i, now + 1 + i, now));
+        }
+
+        assertTrue(cache.markUsed("late", now + 10_001, now + 10_000));
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testFullCacheFailsClosed() {
+        TokenReplayCache cache = new TokenReplayCache(meterRegistry, 2);
+        long now = 1_000_000;
+
+        assertTrue(cache.markUsed("a", now + 36, now));
+        assertTrue(cache.markUsed("b", now + 36, now));
+        assertFalse(cache.markUsed("c", now + 36, now));
+        assertFalse(cache.markUsed("d", now + 37 + TokenReplayCache.RING_SECONDS, now + 37),
+                "a token outliving the ring must not be accepted");
+        assertTrue(cache.markUsed("e", now + 73, now + 37));
+        assertEquals(2.0, meterRegistry.get("quickclock.qr.replay.rejected").tag("reason", "capacity").counter().count());
+    }
+}